@@ -1,18 +1,24 @@
 package chessgame;
 
 import chessgame.gui.ChessFrame;
+import chessgame.uci.UciServer;
 
 import java.awt.*;
 
 /**
  * main class in the project contains main and start thread of the gui
- * here doesn't happen much
+ * here doesn't happen much, with argument {@code uci} engine is started without gui
  */
 
 public class Chess
 {
     public static void main(String[] args)
     {
+        if (args.length > 0 && args[0].equals("uci"))
+        {
+            UciServer.main(args);
+            return;
+        }
         EventQueue.invokeLater(() -> new ChessFrame());
     }
 }
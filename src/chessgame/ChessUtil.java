@@ -77,6 +77,41 @@ public abstract class ChessUtil
         return position % 8 == 7;
     }
 
+    /**
+     * converts position to the name of the box in algebraic notation, box 0 is a8 and box 63 is h1
+     *
+     * @param position index of box on the board
+     * @return name of the box e.g. e2
+     */
+
+    public static String getBoxName(int position)
+    {
+        return String.valueOf((char) ('a' + position % NUMBER_OF_COLUMNS)) + (NUMBER_OF_ROWS - position / NUMBER_OF_COLUMNS);
+    }
+
+    /**
+     * converts name of the box in algebraic notation to the position, inverse of getBoxName
+     *
+     * @param boxName name of the box e.g. e2
+     * @param offset index of the first character of the name in the string
+     * @return index of box on the board or {@code -1} if the name isn't valid
+     */
+
+    public static int getBoxId(CharSequence boxName, int offset)
+    {
+        if (boxName.length() < offset + 2)
+        {
+            return -1;
+        }
+        final int column = boxName.charAt(offset) - 'a';
+        final int row = boxName.charAt(offset + 1) - '1';
+        if (column < 0 || column >= NUMBER_OF_COLUMNS || row < 0 || row >= NUMBER_OF_ROWS)
+        {
+            return -1;
+        }
+        return (NUMBER_OF_ROWS - 1 - row) * NUMBER_OF_COLUMNS + column;
+    }
+
     /**
      * check if the position is in the second row
      *
@@ -0,0 +1,222 @@
+package chessgame.engine;
+
+import chessgame.ChessUtil;
+import chessgame.gameboard.AttackTables;
+import chessgame.gameboard.BitBoard;
+import chessgame.gameboard.Board;
+import chessgame.gameboard.chesspieces.PieceType;
+
+/**
+ * static evaluation of the board. Material and placement of pieces are kept by the board and updated by every move,
+ * evaluator adds mobility, king safety and pawn structure. Middle game and end game scores are blended by the amount
+ * of material left on the board.
+ */
+
+public class Evaluator
+{
+    private static final int KNIGHT_PHASE = 1;
+    private static final int BISHOP_PHASE = 1;
+    private static final int ROOK_PHASE = 2;
+    private static final int QUEEN_PHASE = 4;
+    private static final int MAX_PHASE = 4 * KNIGHT_PHASE + 4 * BISHOP_PHASE + 4 * ROOK_PHASE + 2 * QUEEN_PHASE;
+
+    private static final int KNIGHT_MOBILITY = 4;
+    private static final int BISHOP_MOBILITY = 5;
+    private static final int ROOK_MOBILITY = 2;
+    private static final int QUEEN_MOBILITY = 1;
+
+    private static final int PAWN_SHIELD_BONUS = 12;
+    private static final int KING_ZONE_ATTACK_PENALTY = 8;
+
+    private static final int DOUBLED_PAWN_PENALTY = 12;
+    private static final int ISOLATED_PAWN_PENALTY = 15;
+    private static final int[] PASSED_PAWN_BONUS = {0, 10, 15, 25, 40, 65, 100, 0};
+
+    private static final long[] FILES = new long[ChessUtil.NUMBER_OF_COLUMNS];
+    private static final long[] ADJACENT_FILES = new long[ChessUtil.NUMBER_OF_COLUMNS];
+    private static final long[][] PASSED_PAWN_MASKS = new long[2][ChessUtil.GAME_BOARD_SIZE];
+    private static final long[][] PAWN_SHIELD_MASKS = new long[2][ChessUtil.GAME_BOARD_SIZE];
+
+    static
+    {
+        for (int column = 0; column < ChessUtil.NUMBER_OF_COLUMNS; column++)
+        {
+            FILES[column] = BitBoard.FILE_A << column;
+        }
+        for (int column = 0; column < ChessUtil.NUMBER_OF_COLUMNS; column++)
+        {
+            ADJACENT_FILES[column] = (column > 0 ? FILES[column - 1] : 0L) |
+                    (column < ChessUtil.NUMBER_OF_COLUMNS - 1 ? FILES[column + 1] : 0L);
+        }
+        for (int boxId = 0; boxId < ChessUtil.GAME_BOARD_SIZE; boxId++)
+        {
+            final int column = boxId % ChessUtil.NUMBER_OF_COLUMNS;
+            final int row = boxId / ChessUtil.NUMBER_OF_COLUMNS;
+            final long files = FILES[column] | ADJACENT_FILES[column];
+            // white moves to lower rows, so boxes in front of white piece are above its row
+            final long abovePieceRow = row == 0 ? 0L : -1L >>> (Long.SIZE - row * ChessUtil.NUMBER_OF_COLUMNS);
+            final long belowPieceRow = row == ChessUtil.NUMBER_OF_COLUMNS - 1 ? 0L : -1L << ((row + 1) * ChessUtil.NUMBER_OF_COLUMNS);
+            PASSED_PAWN_MASKS[0][boxId] = files & abovePieceRow;
+            PASSED_PAWN_MASKS[1][boxId] = files & belowPieceRow;
+
+            final long nextTwoRowsAbove = abovePieceRow & ~(row <= 2 ? 0L : -1L >>> (Long.SIZE - (row - 2) * ChessUtil.NUMBER_OF_COLUMNS));
+            final long nextTwoRowsBelow = belowPieceRow & ~(row >= ChessUtil.NUMBER_OF_COLUMNS - 3 ? 0L : -1L << ((row + 3) * ChessUtil.NUMBER_OF_COLUMNS));
+            PAWN_SHIELD_MASKS[0][boxId] = files & nextTwoRowsAbove;
+            PAWN_SHIELD_MASKS[1][boxId] = files & nextTwoRowsBelow;
+        }
+    }
+
+    /**
+     * evaluates the board
+     *
+     * @param board evaluated board
+     * @return score from the point of view of the player that is making move
+     */
+
+    public int evaluate(final Board board)
+    {
+        final BitBoard bitBoard = board.getBitBoard();
+        final int phase = calculatePhase(bitBoard);
+
+        int middleGameScore = board.getMiddleGameScore();
+        int endGameScore = board.getEndGameScore();
+
+        final int mobility = evaluateMobility(bitBoard, true) - evaluateMobility(bitBoard, false);
+        middleGameScore += mobility;
+        endGameScore += mobility;
+
+        middleGameScore += evaluateKingSafety(board, true) - evaluateKingSafety(board, false);
+
+        final int whitePawns = evaluatePawns(bitBoard, true);
+        final int blackPawns = evaluatePawns(bitBoard, false);
+        middleGameScore += whitePawns - blackPawns;
+        endGameScore += 2 * (whitePawns - blackPawns);
+
+        final int score = (middleGameScore * phase + endGameScore * (MAX_PHASE - phase)) / MAX_PHASE;
+        return board.getCurrentPlayer().isWhitePlayer() ? score : -score;
+    }
+
+    /**
+     * calculates phase of the game from the pieces left on the board
+     *
+     * @param bitBoard pieces placement
+     * @return {@code MAX_PHASE} for starting material down to {@code 0} when only kings and pawns are left
+     */
+
+    private static int calculatePhase(final BitBoard bitBoard)
+    {
+        final int phase = KNIGHT_PHASE * countPieces(bitBoard, PieceType.KNIGHT) +
+                BISHOP_PHASE * countPieces(bitBoard, PieceType.BISHOP) +
+                ROOK_PHASE * countPieces(bitBoard, PieceType.ROOK) +
+                QUEEN_PHASE * countPieces(bitBoard, PieceType.QUEEN);
+        return Math.min(phase, MAX_PHASE);
+    }
+
+    /**
+     * counts pieces of given type of both colours
+     *
+     * @param bitBoard pieces placement
+     * @param pieceType type of counted pieces
+     * @return number of pieces
+     */
+
+    private static int countPieces(final BitBoard bitBoard, final PieceType pieceType)
+    {
+        return Long.bitCount(bitBoard.getPieceBitBoard(pieceType, true)) +
+                Long.bitCount(bitBoard.getPieceBitBoard(pieceType, false));
+    }
+
+    /**
+     * counts boxes that knights, bishops, rooks and queens of the player can move to, boxes are taken from attack masks
+     * so moves don't have to be generated for the evaluated board
+     *
+     * @param bitBoard pieces placement
+     * @param white colour of the player
+     * @return mobility score of the player
+     */
+
+    private static int evaluateMobility(final BitBoard bitBoard, final boolean white)
+    {
+        final long occupancy = bitBoard.getOccupancy();
+        final long available = ~bitBoard.getOccupancy(white);
+        int score = 0;
+        for (long pieces = bitBoard.getPieceBitBoard(PieceType.KNIGHT, white); pieces != 0; pieces &= pieces - 1)
+        {
+            score += KNIGHT_MOBILITY * Long.bitCount(AttackTables.getKnightAttacks(Long.numberOfTrailingZeros(pieces)) & available);
+        }
+        for (long pieces = bitBoard.getPieceBitBoard(PieceType.BISHOP, white); pieces != 0; pieces &= pieces - 1)
+        {
+            score += BISHOP_MOBILITY * Long.bitCount(BitBoard.bishopAttacks(Long.numberOfTrailingZeros(pieces), occupancy) & available);
+        }
+        for (long pieces = bitBoard.getPieceBitBoard(PieceType.ROOK, white); pieces != 0; pieces &= pieces - 1)
+        {
+            score += ROOK_MOBILITY * Long.bitCount(BitBoard.rookAttacks(Long.numberOfTrailingZeros(pieces), occupancy) & available);
+        }
+        for (long pieces = bitBoard.getPieceBitBoard(PieceType.QUEEN, white); pieces != 0; pieces &= pieces - 1)
+        {
+            score += QUEEN_MOBILITY * Long.bitCount(BitBoard.queenAttacks(Long.numberOfTrailingZeros(pieces), occupancy) & available);
+        }
+        return score;
+    }
+
+    /**
+     * rewards pawns standing in front of the king and penalizes boxes around the king attacked by the opponent,
+     * attack maps of the board are reused
+     *
+     * @param board evaluated board
+     * @param white colour of the king
+     * @return king safety score of the player
+     */
+
+    private static int evaluateKingSafety(final Board board, final boolean white)
+    {
+        final BitBoard bitBoard = board.getBitBoard();
+        final long king = bitBoard.getPieceBitBoard(PieceType.KING, white);
+        if (king == 0)
+        {
+            return 0;
+        }
+        final int kingPosition = Long.numberOfTrailingZeros(king);
+        final long shield = PAWN_SHIELD_MASKS[white ? 0 : 1][kingPosition] & bitBoard.getPieceBitBoard(PieceType.PAWN, white);
+        final long kingZone = AttackTables.getKingAttacks(kingPosition) | king;
+        return PAWN_SHIELD_BONUS * Long.bitCount(shield) -
+                KING_ZONE_ATTACK_PENALTY * Long.bitCount(kingZone & board.getAttackMap(!white));
+    }
+
+    /**
+     * penalizes doubled and isolated pawns and rewards passed pawns by their advance
+     *
+     * @param bitBoard pieces placement
+     * @param white colour of the pawns
+     * @return pawn structure score of the player
+     */
+
+    private static int evaluatePawns(final BitBoard bitBoard, final boolean white)
+    {
+        final long pawns = bitBoard.getPieceBitBoard(PieceType.PAWN, white);
+        final long opponentPawns = bitBoard.getPieceBitBoard(PieceType.PAWN, !white);
+        int score = 0;
+        for (int column = 0; column < ChessUtil.NUMBER_OF_COLUMNS; column++)
+        {
+            final int count = Long.bitCount(pawns & FILES[column]);
+            if (count > 1)
+            {
+                score -= DOUBLED_PAWN_PENALTY * (count - 1);
+            }
+            if (count > 0 && (pawns & ADJACENT_FILES[column]) == 0)
+            {
+                score -= ISOLATED_PAWN_PENALTY * count;
+            }
+        }
+        for (long pieces = pawns; pieces != 0; pieces &= pieces - 1)
+        {
+            final int position = Long.numberOfTrailingZeros(pieces);
+            if ((PASSED_PAWN_MASKS[white ? 0 : 1][position] & opponentPawns) == 0)
+            {
+                final int row = position / ChessUtil.NUMBER_OF_COLUMNS;
+                score += PASSED_PAWN_BONUS[white ? ChessUtil.NUMBER_OF_COLUMNS - 1 - row : row];
+            }
+        }
+        return score;
+    }
+}
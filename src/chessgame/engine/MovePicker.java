@@ -0,0 +1,252 @@
+package chessgame.engine;
+
+import chessgame.gameboard.Board;
+import chessgame.gameboard.StaticExchange;
+import chessgame.gameboard.chesspieces.PieceType;
+import chessgame.gameboard.move.Move;
+import chessgame.gameboard.move.PackedMove;
+
+import java.util.Collection;
+
+/**
+ * picks moves of the position one by one in order in which they are likely to cause a cutoff: move from the transposition
+ * table, captures by most valuable victim and least valuable attacker, killer moves, quiet moves by history and at last
+ * captures which lose material by static exchange evaluation.
+ * Every stage is prepared only when the previous one is exhausted, so a cutoff by an early move skips sorting of the rest.
+ */
+
+final class MovePicker
+{
+    private enum Stage
+    {
+        HASH_MOVE, CAPTURES, KILLERS, QUIETS, LOSING_CAPTURES, DONE
+    }
+
+    private final Board board;
+    private final Collection<Move> legalMoves;
+    private final int hashMove;
+    private final int[] killerMoves;
+    private final int[] history;
+
+    private Stage stage;
+    private Move[] moves;
+    private int[] scores;
+    private int size;
+    private int index;
+    private Move[] losingCaptures;
+    private int losingCapturesSize;
+
+    /**
+     *
+     * @param board board of the position
+     * @param legalMoves legal moves of the current player
+     * @param hashMove packed move from the transposition table or {@code NO_MOVE}
+     * @param killerMoves packed quiet moves which caused cutoff on the same ply
+     * @param history scores of quiet moves of the current player indexed by starting box and destination
+     */
+
+    MovePicker(final Board board, final Collection<Move> legalMoves, final int hashMove, final int[] killerMoves, final int[] history)
+    {
+        this.board = board;
+        this.legalMoves = legalMoves;
+        this.hashMove = hashMove;
+        this.killerMoves = killerMoves;
+        this.history = history;
+        this.stage = Stage.HASH_MOVE;
+    }
+
+    /**
+     * picks next move
+     *
+     * @return next move in order; {@code null} if all moves were picked
+     */
+
+    Move next()
+    {
+        while (true)
+        {
+            switch (this.stage)
+            {
+                case HASH_MOVE:
+                    this.stage = Stage.CAPTURES;
+                    final Move move = findMove(this.hashMove);
+                    if (move != null)
+                    {
+                        return move;
+                    }
+                    break;
+                case CAPTURES:
+                    if (this.moves == null)
+                    {
+                        prepareCaptures();
+                    }
+                    if (this.index < this.size)
+                    {
+                        return pickBest();
+                    }
+                    this.stage = Stage.KILLERS;
+                    this.index = 0;
+                    break;
+                case KILLERS:
+                    while (this.index < this.killerMoves.length)
+                    {
+                        final int killerMove = this.killerMoves[this.index++];
+                        if (killerMove != this.hashMove && !PackedMove.isAttackMove(killerMove))
+                        {
+                            final Move killer = findMove(killerMove);
+                            if (killer != null)
+                            {
+                                return killer;
+                            }
+                        }
+                    }
+                    this.stage = Stage.QUIETS;
+                    prepareQuiets();
+                    break;
+                case QUIETS:
+                    if (this.index < this.size)
+                    {
+                        return pickBest();
+                    }
+                    this.stage = Stage.LOSING_CAPTURES;
+                    this.index = 0;
+                    break;
+                case LOSING_CAPTURES:
+                    if (this.index < this.losingCapturesSize)
+                    {
+                        return this.losingCaptures[this.index++];
+                    }
+                    this.stage = Stage.DONE;
+                    break;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    /**
+     * score of the capture by most valuable victim and least valuable attacker
+     *
+     * @param move attack move
+     * @return higher score for more valuable victim, attacker decides between equal victims
+     */
+
+    static int scoreCapture(final Move move)
+    {
+        return (move.getAttackedPiece().getPieceType().ordinal() + 1) * PieceType.NUMBER_OF_TYPES -
+                move.getMovedPiece().getPieceType().ordinal();
+    }
+
+    /**
+     * finds legal move which is the same as packed move, also piece types have to match
+     *
+     * @param packedMove packed move
+     * @return legal move; {@code null} if there is no such move
+     */
+
+    private Move findMove(final int packedMove)
+    {
+        if (packedMove == PackedMove.NO_MOVE)
+        {
+            return null;
+        }
+        final Move move = PackedMove.toMove(this.legalMoves, packedMove);
+        return move != Move.NULL_MOVE && PackedMove.fromMove(move) == packedMove ? move : null;
+    }
+
+    /**
+     * collects captures except the hash move and scores them, captures which lose material are put aside
+     */
+
+    private void prepareCaptures()
+    {
+        this.moves = new Move[this.legalMoves.size()];
+        this.scores = new int[this.legalMoves.size()];
+        this.size = 0;
+        this.index = 0;
+        for (Move move : this.legalMoves)
+        {
+            if (move.isAttackMove() && PackedMove.fromMove(move) != this.hashMove)
+            {
+                if (StaticExchange.isLosingCapture(this.board, move))
+                {
+                    if (this.losingCaptures == null)
+                    {
+                        this.losingCaptures = new Move[this.legalMoves.size()];
+                    }
+                    this.losingCaptures[this.losingCapturesSize++] = move;
+                }
+                else
+                {
+                    this.moves[this.size] = move;
+                    this.scores[this.size++] = scoreCapture(move);
+                }
+            }
+        }
+    }
+
+    /**
+     * collects quiet moves except the hash move and killer moves and scores them by history
+     */
+
+    private void prepareQuiets()
+    {
+        this.size = 0;
+        this.index = 0;
+        for (Move move : this.legalMoves)
+        {
+            if (!move.isAttackMove())
+            {
+                final int packedMove = PackedMove.fromMove(move);
+                if (packedMove != this.hashMove && !isKillerMove(packedMove))
+                {
+                    this.moves[this.size] = move;
+                    this.scores[this.size++] = this.history[PackedMove.getBoxes(packedMove)];
+                }
+            }
+        }
+    }
+
+    /**
+     * check if the move is one of the killer moves
+     *
+     * @param packedMove packed move
+     * @return {@code true} if the move is killer move; {@code false} otherwise
+     */
+
+    private boolean isKillerMove(final int packedMove)
+    {
+        for (int killerMove : this.killerMoves)
+        {
+            if (killerMove == packedMove)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * swaps the move with the highest score to the current index and returns it, moves are sorted only as far as they are used
+     *
+     * @return move with the highest score from the rest of the stage
+     */
+
+    private Move pickBest()
+    {
+        int best = this.index;
+        for (int i = this.index + 1; i < this.size; i++)
+        {
+            if (this.scores[i] > this.scores[best])
+            {
+                best = i;
+            }
+        }
+        final Move move = this.moves[best];
+        this.moves[best] = this.moves[this.index];
+        this.scores[best] = this.scores[this.index];
+        this.moves[this.index] = move;
+        this.index++;
+        return move;
+    }
+}
@@ -0,0 +1,167 @@
+package chessgame.engine;
+
+import chessgame.gameboard.Board;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * lazy SMP search. Helper threads search the same root board as the main search and share its transposition table,
+ * results of the helpers are used only through the table. Half of the helpers start one ply deeper, so threads
+ * work on different depths and fill the table for each other. Result of the main search is returned.
+ */
+
+public class ParallelSearch
+{
+    public static final int MAX_THREADS = 256;
+
+    private final TranspositionTable transpositionTable;
+    private final Search mainSearch;
+    private final List<Search> helpers;
+    private ExecutorService executor;
+
+    /**
+     *
+     * @param transpositionTable table shared by all threads of the search
+     * @param threads number of searching threads including the calling thread
+     */
+
+    public ParallelSearch(final TranspositionTable transpositionTable, final int threads)
+    {
+        this.transpositionTable = transpositionTable;
+        this.mainSearch = new Search(transpositionTable);
+        this.helpers = new ArrayList<>();
+        setThreads(threads);
+    }
+
+    /**
+     * changes number of searching threads, it can't be called during the search
+     *
+     * @param threads number of searching threads including the calling thread, from 1 to {@code MAX_THREADS}
+     */
+
+    public void setThreads(final int threads)
+    {
+        final int helperCount = Math.max(1, Math.min(threads, MAX_THREADS)) - 1;
+        if (this.executor != null)
+        {
+            this.executor.shutdownNow();
+            this.executor = null;
+        }
+        this.helpers.clear();
+        for (int i = 0; i < helperCount; i++)
+        {
+            this.helpers.add(new Search(this.transpositionTable));
+        }
+        if (helperCount > 0)
+        {
+            this.executor = Executors.newFixedThreadPool(helperCount, runnable ->
+            {
+                final Thread thread = new Thread(runnable, "search-helper");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * getter of number of searching threads
+     *
+     * @return number of threads including the calling thread
+     */
+
+    public int getThreads()
+    {
+        return this.helpers.size() + 1;
+    }
+
+    /**
+     * sets listener which is informed about result of every finished iteration of the main search
+     *
+     * @param iterationListener consumer of iteration results
+     */
+
+    public void setIterationListener(final Consumer<SearchResult> iterationListener)
+    {
+        this.mainSearch.setIterationListener(iterationListener);
+    }
+
+    /**
+     * searches the board with all threads, the main search runs on the calling thread and helpers are stopped when it ends
+     *
+     * @param board board of the searched position
+     * @param maxDepth maximum depth of the main search
+     * @param timeLimit time limit of the search in milliseconds or {@code 0} if there is no limit
+     * @return result of the main search, number of nodes includes nodes of the helpers
+     */
+
+    public SearchResult search(final Board board, final int maxDepth, final long timeLimit)
+    {
+        // helpers must store entries with the age of this search
+        this.transpositionTable.newSearch();
+        final List<Future<SearchResult>> futures = new ArrayList<>(this.helpers.size());
+        for (int i = 0; i < this.helpers.size(); i++)
+        {
+            final Search helper = this.helpers.get(i);
+            final int startDepth = 1 + i % 2;
+            helper.clearStop();
+            futures.add(this.executor.submit(() -> helper.searchAsHelper(board, startDepth)));
+        }
+
+        final SearchResult result = this.mainSearch.searchWithoutNewAge(board, maxDepth, timeLimit);
+
+        long nodes = result.getNodes();
+        for (int i = 0; i < this.helpers.size(); i++)
+        {
+            this.helpers.get(i).stop();
+        }
+        for (int i = 0; i < this.helpers.size(); i++)
+        {
+            try
+            {
+                futures.get(i).get();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            catch (ExecutionException e)
+            {
+                throw new RuntimeException("helper search failed", e.getCause());
+            }
+            nodes += this.helpers.get(i).getNodes();
+        }
+        return new SearchResult(result.getPrincipalVariation(), result.getScore(), result.getDepth(), nodes, result.getTime());
+    }
+
+    /**
+     * stops the search, it can be called from other thread, search returns result of the last finished iteration
+     */
+
+    public void stop()
+    {
+        this.mainSearch.stop();
+        for (Search helper : this.helpers)
+        {
+            helper.stop();
+        }
+    }
+
+    /**
+     * stops helper threads, search can't be used after that
+     */
+
+    public void shutdown()
+    {
+        stop();
+        if (this.executor != null)
+        {
+            this.executor.shutdownNow();
+        }
+    }
+}
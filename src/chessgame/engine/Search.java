@@ -0,0 +1,520 @@
+package chessgame.engine;
+
+import chessgame.gameboard.Board;
+import chessgame.gameboard.StaticExchange;
+import chessgame.gameboard.move.Move;
+import chessgame.gameboard.move.PackedMove;
+import chessgame.player.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * alpha-beta search in negamax form. Search deepens iteratively, every iteration starts from the best move
+ * of the previous one stored in the transposition table, and it stops when deadline is reached or it is stopped.
+ */
+
+public class Search
+{
+    public static final int MAX_PLY = 64;
+    public static final int MATE_SCORE = 30000;
+    public static final int INFINITY = 32000;
+
+    private static final int TIME_CHECK_INTERVAL = 1023;
+    private static final int NUMBER_OF_KILLER_MOVES = 2;
+    private static final int HISTORY_SIZE = 1 << 12;
+    private static final int MAX_HISTORY = 1 << 20;
+    private static final int DELTA_MARGIN = 200;
+    private static final int[] NO_KILLER_MOVES = new int[0];
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final TranspositionTable transpositionTable;
+    private final Evaluator evaluator;
+    private final Move[][] principalVariations;
+    private final int[] principalVariationLengths;
+    private final int[][] killerMoves;
+    private final int[][] history;
+
+    private volatile boolean stopped;
+    private long deadline;
+    private long nodes;
+    private Consumer<SearchResult> iterationListener;
+
+    /**
+     *
+     * @param transpositionTable table of searched positions used by this search
+     */
+
+    public Search(final TranspositionTable transpositionTable)
+    {
+        this.transpositionTable = transpositionTable;
+        this.evaluator = new Evaluator();
+        this.principalVariations = new Move[MAX_PLY + 1][MAX_PLY + 1];
+        this.principalVariationLengths = new int[MAX_PLY + 1];
+        this.killerMoves = new int[MAX_PLY + 1][NUMBER_OF_KILLER_MOVES];
+        this.history = new int[2][HISTORY_SIZE];
+    }
+
+    /**
+     * sets listener which is informed about result of every finished iteration
+     *
+     * @param iterationListener consumer of iteration results
+     */
+
+    public void setIterationListener(final Consumer<SearchResult> iterationListener)
+    {
+        this.iterationListener = iterationListener;
+    }
+
+    /**
+     * searches the board for the best move within the time limit
+     *
+     * @param board board of the searched position
+     * @param timeLimit time limit of the search in milliseconds
+     * @return result of the last finished iteration
+     */
+
+    public SearchResult findBestMove(final Board board, final long timeLimit)
+    {
+        return search(board, MAX_PLY, timeLimit);
+    }
+
+    /**
+     * searches the board with iterative deepening, new iteration isn't started when more than half of the time is used
+     *
+     * @param board board of the searched position
+     * @param maxDepth maximum depth of the search
+     * @param timeLimit time limit of the search in milliseconds or {@code 0} if there is no limit
+     * @return result of the last finished iteration
+     */
+
+    public SearchResult search(final Board board, final int maxDepth, final long timeLimit)
+    {
+        this.transpositionTable.newSearch();
+        return searchWithoutNewAge(board, maxDepth, timeLimit);
+    }
+
+    /**
+     * main search of the parallel search, table is already marked with new search before helpers are started
+     *
+     * @param board board of the searched position
+     * @param maxDepth maximum depth of the search
+     * @param timeLimit time limit of the search in milliseconds or {@code 0} if there is no limit
+     * @return result of the last finished iteration
+     */
+
+    SearchResult searchWithoutNewAge(final Board board, final int maxDepth, final long timeLimit)
+    {
+        this.stopped = false;
+        return iterate(board, 1, maxDepth, timeLimit);
+    }
+
+    /**
+     * search of helper thread of the parallel search. Table isn't marked with new search and stop flag isn't cleared,
+     * so helper which is stopped before it starts returns at once. Helper runs until it is stopped.
+     *
+     * @param board board of the searched position
+     * @param startDepth depth of the first iteration
+     * @return result of the last finished iteration
+     */
+
+    SearchResult searchAsHelper(final Board board, final int startDepth)
+    {
+        return iterate(board, startDepth, MAX_PLY, 0);
+    }
+
+    /**
+     * clears stop flag of helper before it is started
+     */
+
+    void clearStop()
+    {
+        this.stopped = false;
+    }
+
+    /**
+     * iterative deepening loop
+     *
+     * @param board board of the searched position
+     * @param startDepth depth of the first iteration
+     * @param maxDepth maximum depth of the search
+     * @param timeLimit time limit of the search in milliseconds or {@code 0} if there is no limit
+     * @return result of the last finished iteration
+     */
+
+    private SearchResult iterate(final Board board, final int startDepth, final int maxDepth, final long timeLimit)
+    {
+        final long start = System.currentTimeMillis();
+        this.deadline = timeLimit > 0 ? start + timeLimit : NO_DEADLINE;
+        this.nodes = 0;
+        clearMoveOrdering();
+
+        SearchResult result = null;
+        for (int depth = Math.min(startDepth, maxDepth); depth <= Math.min(maxDepth, MAX_PLY); depth++)
+        {
+            final int score = negamax(board, depth, -INFINITY, INFINITY, 0);
+            if (this.stopped)
+            {
+                // unfinished iteration has partial variation and score, it isn't reported
+                break;
+            }
+            result = new SearchResult(getPrincipalVariation(), score, depth, this.nodes, System.currentTimeMillis() - start);
+            if (this.iterationListener != null)
+            {
+                this.iterationListener.accept(result);
+            }
+            if (result.isMateScore() || result.getBestMove() == null ||
+                    (timeLimit > 0 && 2 * (System.currentTimeMillis() - start) > timeLimit))
+            {
+                break;
+            }
+        }
+        if (result == null)
+        {
+            // stopped before the first iteration has finished, listener isn't informed
+            final Collection<Move> legalMoves = board.getCurrentPlayer().getLegalMoves();
+            final List<Move> variation = legalMoves.isEmpty() ? List.of() : List.of(legalMoves.iterator().next());
+            result = new SearchResult(variation, 0, 0, this.nodes, System.currentTimeMillis() - start);
+        }
+        return result;
+    }
+
+    /**
+     * stops the search, it can be called from other thread, search returns result of the last finished iteration
+     */
+
+    public void stop()
+    {
+        this.stopped = true;
+    }
+
+    /**
+     * getter of number of positions searched by the current or the last search
+     *
+     * @return number of positions
+     */
+
+    public long getNodes()
+    {
+        return this.nodes;
+    }
+
+    /**
+     * negamax search with alpha-beta pruning
+     *
+     * @param board searched board
+     * @param depth remaining depth
+     * @param alpha lower bound of the score
+     * @param beta upper bound of the score
+     * @param ply distance from the root board
+     * @return score of the board from the point of view of the player that is making move
+     */
+
+    private int negamax(final Board board, final int depth, int alpha, final int beta, final int ply)
+    {
+        this.principalVariationLengths[ply] = ply;
+        if (checkStop())
+        {
+            return 0;
+        }
+        if (depth <= 0 || ply >= MAX_PLY)
+        {
+            return quiescence(board, alpha, beta, ply);
+        }
+        this.nodes++;
+
+        final long key = board.getZobristKey();
+        final long entry = this.transpositionTable.probe(key);
+        int hashMove = PackedMove.NO_MOVE;
+        if (entry != TranspositionTable.MISS)
+        {
+            hashMove = TranspositionTable.getMove(entry);
+            if (ply > 0 && TranspositionTable.getDepth(entry) >= depth)
+            {
+                final int score = scoreFromTable(TranspositionTable.getScore(entry), ply);
+                final int bound = TranspositionTable.getBound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT ||
+                        (bound == TranspositionTable.BOUND_LOWER && score >= beta) ||
+                        (bound == TranspositionTable.BOUND_UPPER && score <= alpha))
+                {
+                    return score;
+                }
+            }
+        }
+
+        final Player player = board.getCurrentPlayer();
+        final Collection<Move> legalMoves = player.getLegalMoves();
+        if (legalMoves.isEmpty())
+        {
+            return player.isInCheck() ? -MATE_SCORE + ply : 0;
+        }
+
+        final int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = PackedMove.NO_MOVE;
+        final int[] playerHistory = this.history[player.isWhitePlayer() ? 0 : 1];
+        final MovePicker movePicker = new MovePicker(board, legalMoves, hashMove, this.killerMoves[ply], playerHistory);
+        for (Move move = movePicker.next(); move != null; move = movePicker.next())
+        {
+            final int score = -negamax(move.execute(), depth - 1, -beta, -alpha, ply + 1);
+            if (this.stopped)
+            {
+                return 0;
+            }
+            if (score > bestScore)
+            {
+                bestScore = score;
+                bestMove = PackedMove.fromMove(move);
+                if (score > alpha)
+                {
+                    alpha = score;
+                    updatePrincipalVariation(move, ply);
+                    if (alpha >= beta)
+                    {
+                        if (!move.isAttackMove())
+                        {
+                            updateQuietMoveStatistics(bestMove, depth, ply, playerHistory);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        final int bound = bestScore >= beta ? TranspositionTable.BOUND_LOWER :
+                bestScore > originalAlpha ? TranspositionTable.BOUND_EXACT : TranspositionTable.BOUND_UPPER;
+        this.transpositionTable.store(key, depth, scoreToTable(bestScore, ply), bound, bestMove);
+        return bestScore;
+    }
+
+    /**
+     * search of captures only, which resolves exchanges before the board is evaluated. Player can stand pat with the static
+     * evaluation instead of capturing, captures which can't raise the score to alpha even with a margin and captures
+     * which lose material by static exchange evaluation are skipped.
+     * Player in check has to search all moves which stop the check.
+     *
+     * @param board searched board
+     * @param alpha lower bound of the score
+     * @param beta upper bound of the score
+     * @param ply distance from the root board
+     * @return score of the board from the point of view of the player that is making move
+     */
+
+    private int quiescence(final Board board, int alpha, final int beta, final int ply)
+    {
+        this.principalVariationLengths[ply] = ply;
+        if (checkStop())
+        {
+            return 0;
+        }
+        this.nodes++;
+
+        final Player player = board.getCurrentPlayer();
+        final boolean inCheck = player.isInCheck();
+        if (ply >= MAX_PLY)
+        {
+            return inCheck ? 0 : this.evaluator.evaluate(board);
+        }
+
+        final int standPat;
+        final Collection<Move> moves;
+        int bestScore;
+        if (inCheck)
+        {
+            moves = player.getLegalEvasions();
+            if (moves.isEmpty())
+            {
+                return -MATE_SCORE + ply;
+            }
+            standPat = -INFINITY;
+            bestScore = -INFINITY;
+        }
+        else
+        {
+            standPat = this.evaluator.evaluate(board);
+            if (standPat >= beta)
+            {
+                return standPat;
+            }
+            if (standPat > alpha)
+            {
+                alpha = standPat;
+            }
+            moves = player.getLegalCaptures();
+            bestScore = standPat;
+        }
+
+        final int[] playerHistory = this.history[player.isWhitePlayer() ? 0 : 1];
+        final MovePicker movePicker = new MovePicker(board, moves, PackedMove.NO_MOVE, NO_KILLER_MOVES, playerHistory);
+        for (Move move = movePicker.next(); move != null; move = movePicker.next())
+        {
+            if (!inCheck && (standPat + move.getAttackedPiece().getPieceType().getValue() + DELTA_MARGIN <= alpha ||
+                    StaticExchange.isLosingCapture(board, move)))
+            {
+                continue;
+            }
+            final int score = -quiescence(move.execute(), -beta, -alpha, ply + 1);
+            if (this.stopped)
+            {
+                return 0;
+            }
+            if (score > bestScore)
+            {
+                bestScore = score;
+                if (score > alpha)
+                {
+                    alpha = score;
+                    if (alpha >= beta)
+                    {
+                        break;
+                    }
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    /**
+     * remembers quiet move which caused cutoff as killer move of the ply and raises its history score by square of the depth
+     *
+     * @param move packed quiet move
+     * @param depth remaining depth of the cutoff
+     * @param ply distance from the root board
+     * @param playerHistory history scores of the player that made the move
+     */
+
+    private void updateQuietMoveStatistics(final int move, final int depth, final int ply, final int[] playerHistory)
+    {
+        final int[] killers = this.killerMoves[ply];
+        if (killers[0] != move)
+        {
+            System.arraycopy(killers, 0, killers, 1, NUMBER_OF_KILLER_MOVES - 1);
+            killers[0] = move;
+        }
+        final int boxes = PackedMove.getBoxes(move);
+        playerHistory[boxes] += depth * depth;
+        if (playerHistory[boxes] > MAX_HISTORY)
+        {
+            for (int i = 0; i < HISTORY_SIZE; i++)
+            {
+                playerHistory[i] /= 2;
+            }
+        }
+    }
+
+    /**
+     * clears killer moves of the previous search and halves history scores, so older cutoffs count less
+     */
+
+    private void clearMoveOrdering()
+    {
+        for (int[] killers : this.killerMoves)
+        {
+            Arrays.fill(killers, PackedMove.NO_MOVE);
+        }
+        for (int[] playerHistory : this.history)
+        {
+            for (int i = 0; i < HISTORY_SIZE; i++)
+            {
+                playerHistory[i] /= 2;
+            }
+        }
+    }
+
+    /**
+     * checks if the search should stop, time is checked every 1024 positions
+     *
+     * @return {@code true} if search is stopped; {@code false} otherwise
+     */
+
+    private boolean checkStop()
+    {
+        if ((this.nodes & TIME_CHECK_INTERVAL) == 0 && this.deadline != NO_DEADLINE &&
+                System.currentTimeMillis() >= this.deadline)
+        {
+            this.stopped = true;
+        }
+        return this.stopped;
+    }
+
+    /**
+     * makes move the first move of the principal variation of the ply, followed by the variation of the next ply
+     *
+     * @param move best move of the ply
+     * @param ply distance from the root board
+     */
+
+    private void updatePrincipalVariation(final Move move, final int ply)
+    {
+        final Move[] variation = this.principalVariations[ply];
+        final Move[] nextVariation = this.principalVariations[ply + 1];
+        variation[ply] = move;
+        final int nextLength = this.principalVariationLengths[ply + 1];
+        for (int i = ply + 1; i < nextLength; i++)
+        {
+            variation[i] = nextVariation[i];
+        }
+        this.principalVariationLengths[ply] = Math.max(nextLength, ply + 1);
+    }
+
+    /**
+     * getter of principal variation of the root board
+     *
+     * @return list of best moves of both players
+     */
+
+    private List<Move> getPrincipalVariation()
+    {
+        final List<Move> variation = new ArrayList<>();
+        for (int i = 0; i < this.principalVariationLengths[0]; i++)
+        {
+            variation.add(this.principalVariations[0][i]);
+        }
+        return variation;
+    }
+
+    /**
+     * mate scores are stored as distance from the stored position instead of distance from the root board
+     *
+     * @param score score of the search
+     * @param ply distance from the root board
+     * @return score that will be stored in the transposition table
+     */
+
+    private static int scoreToTable(final int score, final int ply)
+    {
+        if (score >= MATE_SCORE - MAX_PLY)
+        {
+            return score + ply;
+        }
+        if (score <= -MATE_SCORE + MAX_PLY)
+        {
+            return score - ply;
+        }
+        return score;
+    }
+
+    /**
+     * converts mate score from the transposition table to the distance from the root board
+     *
+     * @param score score stored in the transposition table
+     * @param ply distance from the root board
+     * @return score of the search
+     */
+
+    private static int scoreFromTable(final int score, final int ply)
+    {
+        if (score >= MATE_SCORE - MAX_PLY)
+        {
+            return score - ply;
+        }
+        if (score <= -MATE_SCORE + MAX_PLY)
+        {
+            return score + ply;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,113 @@
+package chessgame.engine;
+
+import chessgame.gameboard.move.Move;
+
+import java.util.List;
+
+/**
+ * class which represents result of one iteration of the search
+ */
+
+public final class SearchResult
+{
+    private final List<Move> principalVariation;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long time;
+
+    /**
+     *
+     * @param principalVariation best moves of both players found by the search, first one is the best move
+     * @param score score of the position from the point of view of the player that is making move
+     * @param depth depth of the finished iteration
+     * @param nodes number of searched positions
+     * @param time time of the search in milliseconds
+     */
+
+    public SearchResult(final List<Move> principalVariation, final int score, final int depth, final long nodes, final long time)
+    {
+        this.principalVariation = List.copyOf(principalVariation);
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.time = time;
+    }
+
+    /**
+     * getter of the best move
+     *
+     * @return best move or {@code null} if the player has no legal move
+     */
+
+    public Move getBestMove()
+    {
+        return this.principalVariation.isEmpty() ? null : this.principalVariation.get(0);
+    }
+
+    /**
+     * getter of the principal variation
+     *
+     * @return best moves of both players, starting with the move of the player that is making move
+     */
+
+    public List<Move> getPrincipalVariation()
+    {
+        return this.principalVariation;
+    }
+
+    /**
+     * getter of score of the position in centipawns
+     *
+     * @return score from the point of view of the player that is making move
+     */
+
+    public int getScore()
+    {
+        return this.score;
+    }
+
+    /**
+     * getter of the search depth
+     *
+     * @return depth of the finished iteration
+     */
+
+    public int getDepth()
+    {
+        return this.depth;
+    }
+
+    /**
+     * getter of number of searched positions
+     *
+     * @return number of positions
+     */
+
+    public long getNodes()
+    {
+        return this.nodes;
+    }
+
+    /**
+     * getter of time of the search
+     *
+     * @return time in milliseconds
+     */
+
+    public long getTime()
+    {
+        return this.time;
+    }
+
+    /**
+     * check if score means that one of the players can force checkmate
+     *
+     * @return {@code true} if this is mate score; {@code false} otherwise
+     */
+
+    public boolean isMateScore()
+    {
+        return Math.abs(this.score) >= Search.MATE_SCORE - Search.MAX_PLY;
+    }
+}
@@ -0,0 +1,276 @@
+package chessgame.engine;
+
+import java.util.Arrays;
+
+/**
+ * fixed size hash table of searched positions, keyed by zobrist key of the board. Table is made of buckets with two entries:
+ * the first one keeps the deepest search of the position, the second one is always replaced by the newest search.
+ * Every entry is two longs, key and data, data packs best move, score, depth, bound type and age of the search.
+ * Table is shared by search threads without locks: key is stored xored with data, so entry written by two threads
+ * at the same time doesn't match any key and is read as a miss.
+ */
+
+public final class TranspositionTable
+{
+    public static final int BOUND_EXACT = 1;
+    public static final int BOUND_LOWER = 2;
+    public static final int BOUND_UPPER = 3;
+
+    /**
+     * data returned by probe when position isn't stored
+     */
+    public static final long MISS = 0L;
+
+    private static final int ENTRY_SIZE = 2;
+    private static final int BUCKET_SIZE = 2 * ENTRY_SIZE;
+    private static final int BYTES_PER_BUCKET = BUCKET_SIZE * Long.BYTES;
+
+    private static final int SCORE_SHIFT = 32;
+    private static final int DEPTH_SHIFT = 48;
+    private static final int BOUND_SHIFT = 56;
+    private static final int AGE_SHIFT = 58;
+    private static final int AGE_MASK = 0x3F;
+
+    private long[] entries;
+    private int bucketMask;
+    private volatile int age;
+
+    /**
+     *
+     * @param sizeInMb maximum memory used by the table in megabytes, number of buckets is rounded down to power of two
+     */
+
+    public TranspositionTable(final int sizeInMb)
+    {
+        resize(sizeInMb);
+    }
+
+    /**
+     * allocates new table with given size, all stored positions are lost
+     *
+     * @param sizeInMb maximum memory used by the table in megabytes
+     */
+
+    public void resize(final int sizeInMb)
+    {
+        final long bytes = Math.max(1, sizeInMb) * 1024L * 1024L;
+        final long buckets = Long.highestOneBit(Math.min(bytes / BYTES_PER_BUCKET, Integer.MAX_VALUE / BUCKET_SIZE));
+        this.entries = new long[(int) buckets * BUCKET_SIZE];
+        this.bucketMask = (int) buckets - 1;
+        this.age = 0;
+    }
+
+    /**
+     * removes all stored positions
+     */
+
+    public void clear()
+    {
+        Arrays.fill(this.entries, 0L);
+        this.age = 0;
+    }
+
+    /**
+     * marks start of the new search, entries of previous searches can be replaced by shallower ones
+     */
+
+    public void newSearch()
+    {
+        this.age = (this.age + 1) & AGE_MASK;
+    }
+
+    /**
+     * looks for the position in the table
+     *
+     * @param key zobrist key of the board
+     * @return packed data of the position or {@link #MISS} if position isn't stored
+     */
+
+    public long probe(final long key)
+    {
+        final int index = bucketIndex(key);
+        for (int i = index; i < index + BUCKET_SIZE; i += ENTRY_SIZE)
+        {
+            final long data = this.entries[i + 1];
+            if ((this.entries[i] ^ data) == key && data != MISS)
+            {
+                return data;
+            }
+        }
+        return MISS;
+    }
+
+    /**
+     * stores result of the search. Deeper searches and searches of the current age keep the first entry of the bucket,
+     * other results go to the second entry.
+     *
+     * @param key zobrist key of the board
+     * @param depth depth of the search, from 0 to 255
+     * @param score score of the position
+     * @param bound one of {@code BOUND_EXACT}, {@code BOUND_LOWER}, {@code BOUND_UPPER}
+     * @param move packed best move or {@code 0} if there is no move
+     */
+
+    public void store(final long key, final int depth, final int score, final int bound, final int move)
+    {
+        final int index = bucketIndex(key);
+        final int currentAge = this.age;
+        final long data = pack(depth, score, bound, move, currentAge);
+        final long storedData = this.entries[index + 1];
+        final boolean samePosition = (this.entries[index] ^ storedData) == key;
+
+        if (storedData == MISS || samePosition || getAge(storedData) != currentAge || depth >= getDepth(storedData))
+        {
+            write(index, key, keepMove(data, storedData, samePosition));
+            return;
+        }
+        final int secondIndex = index + ENTRY_SIZE;
+        final long secondData = this.entries[secondIndex + 1];
+        write(secondIndex, key, keepMove(data, secondData, (this.entries[secondIndex] ^ secondData) == key));
+    }
+
+    /**
+     * calculates how full is the table, only first thousand buckets are sampled
+     *
+     * @return number of used entries per thousand
+     */
+
+    public int getHashFull()
+    {
+        final int samples = Math.min(1000, this.bucketMask + 1);
+        final int currentAge = this.age;
+        int used = 0;
+        for (int i = 0; i < samples * BUCKET_SIZE; i += ENTRY_SIZE)
+        {
+            if (this.entries[i + 1] != MISS && getAge(this.entries[i + 1]) == currentAge)
+            {
+                used++;
+            }
+        }
+        return used * 1000 / (samples * 2);
+    }
+
+    /**
+     * getter of best move from packed data
+     *
+     * @param data data returned by probe
+     * @return packed best move
+     */
+
+    public static int getMove(final long data)
+    {
+        return (int) data;
+    }
+
+    /**
+     * getter of score from packed data
+     *
+     * @param data data returned by probe
+     * @return score of the position
+     */
+
+    public static int getScore(final long data)
+    {
+        return (short) (data >>> SCORE_SHIFT);
+    }
+
+    /**
+     * getter of search depth from packed data
+     *
+     * @param data data returned by probe
+     * @return depth of the search
+     */
+
+    public static int getDepth(final long data)
+    {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    /**
+     * getter of bound type from packed data
+     *
+     * @param data data returned by probe
+     * @return one of {@code BOUND_EXACT}, {@code BOUND_LOWER}, {@code BOUND_UPPER}
+     */
+
+    public static int getBound(final long data)
+    {
+        return (int) (data >>> BOUND_SHIFT) & 0x3;
+    }
+
+    /**
+     * writes entry, key is xored with data so the entry can be verified when it is read by other thread
+     *
+     * @param index index of the entry in the entries array
+     * @param key zobrist key of the board
+     * @param data packed data of the entry
+     */
+
+    private void write(final int index, final long key, final long data)
+    {
+        this.entries[index] = key ^ data;
+        this.entries[index + 1] = data;
+    }
+
+    /**
+     * packs entry data into one long
+     *
+     * @param depth depth of the search
+     * @param score score of the position
+     * @param bound type of the bound
+     * @param move packed best move
+     * @param age age of the search
+     * @return packed data of the entry
+     */
+
+    private static long pack(final int depth, final int score, final int bound, final int move, final int age)
+    {
+        return (move & 0xFFFFFFFFL) |
+                ((score & 0xFFFFL) << SCORE_SHIFT) |
+                ((long) (depth & 0xFF) << DEPTH_SHIFT) |
+                ((long) (bound & 0x3) << BOUND_SHIFT) |
+                ((long) (age & AGE_MASK) << AGE_SHIFT);
+    }
+
+    /**
+     * new entry without move keeps best move of the same position found by previous search
+     *
+     * @param data packed data of the new entry
+     * @param storedData packed data of the replaced entry
+     * @param samePosition defines if replaced entry belongs to the same position
+     * @return packed data that will be stored
+     */
+
+    private static long keepMove(final long data, final long storedData, final boolean samePosition)
+    {
+        if (getMove(data) == 0 && samePosition)
+        {
+            return data | (storedData & 0xFFFFFFFFL);
+        }
+        return data;
+    }
+
+    /**
+     * getter of age of the search from packed data
+     *
+     * @param data packed data of the entry
+     * @return age of the search that stored the entry
+     */
+
+    private static int getAge(final long data)
+    {
+        return (int) (data >>> AGE_SHIFT) & AGE_MASK;
+    }
+
+    /**
+     * calculates index of the first entry of the bucket that can store the position
+     *
+     * @param key zobrist key of the board
+     * @return index in the entries array
+     */
+
+    private int bucketIndex(final long key)
+    {
+        return ((int) (key ^ (key >>> 32)) & this.bucketMask) * BUCKET_SIZE;
+    }
+}
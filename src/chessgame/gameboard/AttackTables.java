@@ -0,0 +1,253 @@
+package chessgame.gameboard;
+
+import chessgame.ChessUtil;
+
+/**
+ * attack tables calculated once when the class is loaded. For every box there are masks and lists of destinations
+ * of knight, king and pawns of both colours, and rays of boxes in every queen direction ordered from the nearest box,
+ * so move generation doesn't need to check columns of the board.
+ */
+
+public final class AttackTables
+{
+    /**
+     * number of ray directions, directions are indexed like {@link ChessUtil#QUEEN_POSSIBLE_MOVES_VECTOR}
+     */
+    public static final int NUMBER_OF_DIRECTIONS = 8;
+
+    private static final int[][] KNIGHT_DESTINATIONS = new int[ChessUtil.GAME_BOARD_SIZE][];
+    private static final int[][] KING_DESTINATIONS = new int[ChessUtil.GAME_BOARD_SIZE][];
+    private static final int[][][] PAWN_ATTACK_DESTINATIONS = new int[2][ChessUtil.GAME_BOARD_SIZE][];
+    private static final long[] KNIGHT_ATTACKS = new long[ChessUtil.GAME_BOARD_SIZE];
+    private static final long[] KING_ATTACKS = new long[ChessUtil.GAME_BOARD_SIZE];
+    private static final long[][] PAWN_ATTACKS = new long[2][ChessUtil.GAME_BOARD_SIZE];
+
+    private static final int[][][] RAYS = new int[ChessUtil.GAME_BOARD_SIZE][NUMBER_OF_DIRECTIONS][];
+    private static final long[][] RAY_MASKS = new long[NUMBER_OF_DIRECTIONS][ChessUtil.GAME_BOARD_SIZE];
+
+    static
+    {
+        for (int boxId = 0; boxId < ChessUtil.GAME_BOARD_SIZE; boxId++)
+        {
+            KNIGHT_DESTINATIONS[boxId] = calculateDestinations(boxId, ChessUtil.KNIGHT_POSSIBLE_MOVES);
+            KING_DESTINATIONS[boxId] = calculateDestinations(boxId, ChessUtil.KING_POSSIBLE_MOVES_VECTOR);
+            PAWN_ATTACK_DESTINATIONS[0][boxId] = calculateDestinations(boxId, new int[]{-9, -7});
+            PAWN_ATTACK_DESTINATIONS[1][boxId] = calculateDestinations(boxId, new int[]{7, 9});
+            KNIGHT_ATTACKS[boxId] = toMask(KNIGHT_DESTINATIONS[boxId]);
+            KING_ATTACKS[boxId] = toMask(KING_DESTINATIONS[boxId]);
+            PAWN_ATTACKS[0][boxId] = toMask(PAWN_ATTACK_DESTINATIONS[0][boxId]);
+            PAWN_ATTACKS[1][boxId] = toMask(PAWN_ATTACK_DESTINATIONS[1][boxId]);
+
+            for (int direction = 0; direction < NUMBER_OF_DIRECTIONS; direction++)
+            {
+                RAYS[boxId][direction] = calculateRay(boxId, ChessUtil.QUEEN_POSSIBLE_MOVES_VECTOR[direction]);
+                RAY_MASKS[direction][boxId] = toMask(RAYS[boxId][direction]);
+            }
+        }
+    }
+
+    private AttackTables()
+    {
+        throw new RuntimeException("not instantionable");
+    }
+
+    /**
+     * getter of boxes that knight can reach from the box
+     *
+     * @param boxId index of the box on the game board
+     * @return indexes of destination boxes
+     */
+
+    public static int[] getKnightDestinations(final int boxId)
+    {
+        return KNIGHT_DESTINATIONS[boxId];
+    }
+
+    /**
+     * getter of boxes that king can reach from the box
+     *
+     * @param boxId index of the box on the game board
+     * @return indexes of destination boxes
+     */
+
+    public static int[] getKingDestinations(final int boxId)
+    {
+        return KING_DESTINATIONS[boxId];
+    }
+
+    /**
+     * getter of boxes attacked by pawn standing on the box
+     *
+     * @param boxId index of the box on the game board
+     * @param white colour of the pawn
+     * @return indexes of attacked boxes
+     */
+
+    public static int[] getPawnAttackDestinations(final int boxId, final boolean white)
+    {
+        return PAWN_ATTACK_DESTINATIONS[white ? 0 : 1][boxId];
+    }
+
+    /**
+     * getter of mask of boxes attacked by knight standing on the box
+     *
+     * @param boxId index of the box on the game board
+     * @return mask of attacked boxes
+     */
+
+    public static long getKnightAttacks(final int boxId)
+    {
+        return KNIGHT_ATTACKS[boxId];
+    }
+
+    /**
+     * getter of mask of boxes attacked by king standing on the box
+     *
+     * @param boxId index of the box on the game board
+     * @return mask of attacked boxes
+     */
+
+    public static long getKingAttacks(final int boxId)
+    {
+        return KING_ATTACKS[boxId];
+    }
+
+    /**
+     * getter of mask of boxes attacked by pawn standing on the box
+     *
+     * @param boxId index of the box on the game board
+     * @param white colour of the pawn
+     * @return mask of attacked boxes
+     */
+
+    public static long getPawnAttacks(final int boxId, final boolean white)
+    {
+        return PAWN_ATTACKS[white ? 0 : 1][boxId];
+    }
+
+    /**
+     * getter of ray of boxes from the box to the edge of the board, the box itself isn't included
+     *
+     * @param boxId index of the box on the game board
+     * @param direction index of the direction in the queen move vectors
+     * @return indexes of boxes ordered from the nearest one
+     */
+
+    public static int[] getRay(final int boxId, final int direction)
+    {
+        return RAYS[boxId][direction];
+    }
+
+    /**
+     * check if the direction is diagonal
+     *
+     * @param direction index of the direction in the queen move vectors
+     * @return {@code true} if direction is diagonal; {@code false} otherwise
+     */
+
+    public static boolean isDiagonal(final int direction)
+    {
+        return (direction & 1) == 1;
+    }
+
+    /**
+     * calculates boxes attacked by sliding piece in given direction, the ray ends on the first occupied box
+     *
+     * @param boxId index of the box with sliding piece
+     * @param direction index of the direction in the queen move vectors
+     * @param occupancy mask of all occupied boxes
+     * @return mask of attacked boxes
+     */
+
+    public static long getRayAttacks(final int boxId, final int direction, final long occupancy)
+    {
+        final long ray = RAY_MASKS[direction][boxId];
+        final long blockers = ray & occupancy;
+        if (blockers == 0)
+        {
+            return ray;
+        }
+        // first four directions go towards higher indexes, so the nearest blocker is the lowest bit
+        final int blocker = direction < NUMBER_OF_DIRECTIONS / 2 ?
+                Long.numberOfTrailingZeros(blockers) : 63 - Long.numberOfLeadingZeros(blockers);
+        return ray ^ RAY_MASKS[direction][blocker];
+    }
+
+    /**
+     * calculates destinations of one step moves that don't leave the board
+     *
+     * @param boxId index of the starting box
+     * @param vectors move vectors
+     * @return indexes of destination boxes
+     */
+
+    private static int[] calculateDestinations(final int boxId, final int[] vectors)
+    {
+        final int[] destinations = new int[vectors.length];
+        int count = 0;
+        for (int vector : vectors)
+        {
+            final int destination = boxId + vector;
+            if (ChessUtil.borderCheck(destination) && isNeighbourColumn(boxId, destination))
+            {
+                destinations[count++] = destination;
+            }
+        }
+        final int[] result = new int[count];
+        System.arraycopy(destinations, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * calculates ray of boxes in given direction until the edge of the board
+     *
+     * @param boxId index of the starting box
+     * @param vector move vector of the direction
+     * @return indexes of boxes ordered from the nearest one
+     */
+
+    private static int[] calculateRay(final int boxId, final int vector)
+    {
+        final int[] ray = new int[ChessUtil.NUMBER_OF_COLUMNS - 1];
+        int count = 0;
+        int position = boxId;
+        while (ChessUtil.borderCheck(position + vector) && isNeighbourColumn(position, position + vector))
+        {
+            position += vector;
+            ray[count++] = position;
+        }
+        final int[] result = new int[count];
+        System.arraycopy(ray, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * check if one step doesn't wrap around the edge of the board, knight step changes column by at most two
+     *
+     * @param position index of the starting box
+     * @param destination index of the destination box
+     * @return {@code true} if columns of the boxes differ by at most two; {@code false} otherwise
+     */
+
+    private static boolean isNeighbourColumn(final int position, final int destination)
+    {
+        return Math.abs(position % ChessUtil.NUMBER_OF_COLUMNS - destination % ChessUtil.NUMBER_OF_COLUMNS) <= 2;
+    }
+
+    /**
+     * converts list of boxes to mask
+     *
+     * @param boxes indexes of boxes
+     * @return mask of the boxes
+     */
+
+    private static long toMask(final int[] boxes)
+    {
+        long mask = 0L;
+        for (int boxId : boxes)
+        {
+            mask |= 1L << boxId;
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,414 @@
+package chessgame.gameboard;
+
+import chessgame.ChessUtil;
+import chessgame.gameboard.chesspieces.Piece;
+import chessgame.gameboard.chesspieces.PieceType;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * packed representation of the pieces placement. Contains one 64 bit mask for every piece type of both colours,
+ * occupancy masks and mask of pieces that haven't moved yet. Bit with index n represents box with boxId n.
+ */
+
+public final class BitBoard
+{
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_B = FILE_A << 1;
+    public static final long FILE_G = FILE_A << 6;
+    public static final long FILE_H = FILE_A << 7;
+
+    private final long[] pieceBitBoards;
+    private final long whiteOccupancy;
+    private final long blackOccupancy;
+    private final long unmovedPieces;
+
+    /**
+     *
+     * @param pieceBitBoards masks of all pieces, first six for white and next six for black pieces
+     * @param unmovedPieces mask of pieces which haven't moved yet
+     */
+
+    private BitBoard(final long[] pieceBitBoards, final long unmovedPieces)
+    {
+        long whiteOccupancy = 0L;
+        long blackOccupancy = 0L;
+        for (int i = 0; i < PieceType.NUMBER_OF_TYPES; i++)
+        {
+            whiteOccupancy |= pieceBitBoards[i];
+            blackOccupancy |= pieceBitBoards[i + PieceType.NUMBER_OF_TYPES];
+        }
+        this.pieceBitBoards = pieceBitBoards;
+        this.whiteOccupancy = whiteOccupancy;
+        this.blackOccupancy = blackOccupancy;
+        this.unmovedPieces = unmovedPieces;
+    }
+
+    /**
+     * creates bit board with given pieces
+     *
+     * @param pieces all pieces placed on the board
+     * @return bit board that contains given pieces
+     */
+
+    public static BitBoard createBitBoard(final Collection<Piece> pieces)
+    {
+        final long[] pieceBitBoards = new long[2 * PieceType.NUMBER_OF_TYPES];
+        long unmovedPieces = 0L;
+        for (Piece piece : pieces)
+        {
+            final long boxMask = 1L << piece.getPosition();
+            pieceBitBoards[index(piece.getPieceType(), piece.isWhite())] |= boxMask;
+            if (piece.isFirstMove())
+            {
+                unmovedPieces |= boxMask;
+            }
+        }
+        return new BitBoard(pieceBitBoards, unmovedPieces);
+    }
+
+    /**
+     * getter of the mask of pieces with given type and colour
+     *
+     * @param pieceType type of the pieces
+     * @param white colour of the pieces
+     * @return mask of boxes occupied by such pieces
+     */
+
+    public long getPieceBitBoard(final PieceType pieceType, final boolean white)
+    {
+        return this.pieceBitBoards[index(pieceType, white)];
+    }
+
+    /**
+     * getter of the mask of boxes occupied by white pieces
+     *
+     * @return mask of white pieces
+     */
+
+    public long getWhiteOccupancy()
+    {
+        return this.whiteOccupancy;
+    }
+
+    /**
+     * getter of the mask of boxes occupied by black pieces
+     *
+     * @return mask of black pieces
+     */
+
+    public long getBlackOccupancy()
+    {
+        return this.blackOccupancy;
+    }
+
+    /**
+     * getter of the mask of boxes occupied by pieces of given colour
+     *
+     * @param white colour of the pieces
+     * @return mask of pieces of given colour
+     */
+
+    public long getOccupancy(final boolean white)
+    {
+        return white ? this.whiteOccupancy : this.blackOccupancy;
+    }
+
+    /**
+     * getter of the mask of all occupied boxes
+     *
+     * @return mask of all pieces
+     */
+
+    public long getOccupancy()
+    {
+        return this.whiteOccupancy | this.blackOccupancy;
+    }
+
+    /**
+     * getter of the mask of pieces that haven't moved yet
+     *
+     * @return mask of unmoved pieces
+     */
+
+    public long getUnmovedPieces()
+    {
+        return this.unmovedPieces;
+    }
+
+    /**
+     * check if there is a piece on the box
+     *
+     * @param boxId index of the box on the game board
+     * @return {@code true} if the box is occupied; {@code false} otherwise
+     */
+
+    public boolean isOccupied(final int boxId)
+    {
+        return (getOccupancy() & (1L << boxId)) != 0;
+    }
+
+    /**
+     * check if there is a white piece on the box
+     *
+     * @param boxId index of the box on the game board
+     * @return {@code true} if there is white piece on the box; {@code false} otherwise
+     */
+
+    public boolean isWhitePiece(final int boxId)
+    {
+        return (this.whiteOccupancy & (1L << boxId)) != 0;
+    }
+
+    /**
+     * getter of type of the piece placed on the box
+     *
+     * @param boxId index of the box on the game board
+     * @return type of the piece or {@code null} if the box is empty
+     */
+
+    public PieceType getPieceType(final int boxId)
+    {
+        final long boxMask = 1L << boxId;
+        final int offset = (this.whiteOccupancy & boxMask) != 0 ? 0 : PieceType.NUMBER_OF_TYPES;
+        if (((this.whiteOccupancy | this.blackOccupancy) & boxMask) == 0)
+        {
+            return null;
+        }
+        for (int i = 0; i < PieceType.NUMBER_OF_TYPES; i++)
+        {
+            if ((this.pieceBitBoards[offset + i] & boxMask) != 0)
+            {
+                return PieceType.getType(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * getter of piece that is placed on the box
+     *
+     * @param boxId index of the box on the game board
+     * @return piece placed on the box or {@code null} if the box is empty
+     */
+
+    public Piece getPiece(final int boxId)
+    {
+        final PieceType pieceType = getPieceType(boxId);
+        if (pieceType == null)
+        {
+            return null;
+        }
+        return pieceType.getPiece(boxId, isWhitePiece(boxId), (this.unmovedPieces & (1L << boxId)) != 0);
+    }
+
+    /**
+     * adapter of this bit board to the box representation used by the pieces logic
+     *
+     * @param boxId index of the box on the game board
+     * @return {@code occupiedBoardBox} if there is a piece on it; {@code emptyBoardBox} if there is nothing
+     */
+
+    public BoardBox getBox(final int boxId)
+    {
+        return BoardBox.createBox(boxId, getPiece(boxId));
+    }
+
+    /**
+     * calculates mask of all boxes attacked by pieces of given colour, boxes occupied by own pieces are included
+     *
+     * @param white colour of the attacking pieces
+     * @return mask of attacked boxes
+     */
+
+    public long calculateAttacks(final boolean white)
+    {
+        return calculateAttacks(white, getOccupancy());
+    }
+
+    /**
+     * calculates mask of all boxes attacked by pieces of given colour when sliding pieces are blocked by given occupancy
+     *
+     * @param white colour of the attacking pieces
+     * @param occupancy mask of boxes that block sliding pieces
+     * @return mask of attacked boxes
+     */
+
+    public long calculateAttacks(final boolean white, final long occupancy)
+    {
+        long attacks = pawnAttacks(getPieceBitBoard(PieceType.PAWN, white), white);
+        attacks |= knightAttacks(getPieceBitBoard(PieceType.KNIGHT, white));
+        attacks |= kingAttacks(getPieceBitBoard(PieceType.KING, white));
+
+        final long queens = getPieceBitBoard(PieceType.QUEEN, white);
+        for (long bishops = getPieceBitBoard(PieceType.BISHOP, white) | queens; bishops != 0; bishops &= bishops - 1)
+        {
+            attacks |= bishopAttacks(Long.numberOfTrailingZeros(bishops), occupancy);
+        }
+        for (long rooks = getPieceBitBoard(PieceType.ROOK, white) | queens; rooks != 0; rooks &= rooks - 1)
+        {
+            attacks |= rookAttacks(Long.numberOfTrailingZeros(rooks), occupancy);
+        }
+        return attacks;
+    }
+
+    /**
+     * calculates boxes attacked by pawns, white pawns attack towards lower indexes
+     *
+     * @param pawns mask of pawns
+     * @param white colour of the pawns
+     * @return mask of attacked boxes
+     */
+
+    public static long pawnAttacks(final long pawns, final boolean white)
+    {
+        if (white)
+        {
+            return ((pawns & ~FILE_H) >>> 7) | ((pawns & ~FILE_A) >>> 9);
+        }
+        return ((pawns & ~FILE_A) << 7) | ((pawns & ~FILE_H) << 9);
+    }
+
+    /**
+     * calculates boxes attacked by knights
+     *
+     * @param knights mask of knights
+     * @return mask of attacked boxes
+     */
+
+    public static long knightAttacks(final long knights)
+    {
+        final long notFileA = knights & ~FILE_A;
+        final long notFileH = knights & ~FILE_H;
+        final long notFilesAB = knights & ~(FILE_A | FILE_B);
+        final long notFilesGH = knights & ~(FILE_G | FILE_H);
+        return (notFileH << 17) | (notFileA << 15) | (notFilesGH << 10) | (notFilesAB << 6) |
+                (notFileA >>> 17) | (notFileH >>> 15) | (notFilesAB >>> 10) | (notFilesGH >>> 6);
+    }
+
+    /**
+     * calculates boxes attacked by kings
+     *
+     * @param kings mask of kings
+     * @return mask of attacked boxes
+     */
+
+    public static long kingAttacks(final long kings)
+    {
+        final long notFileA = kings & ~FILE_A;
+        final long notFileH = kings & ~FILE_H;
+        return (kings << 8) | (kings >>> 8) |
+                (notFileH << 1) | (notFileH << 9) | (notFileH >>> 7) |
+                (notFileA >>> 1) | (notFileA >>> 9) | (notFileA << 7);
+    }
+
+    /**
+     * calculates boxes attacked by bishop, every ray ends on the first occupied box
+     *
+     * @param boxId index of the box with bishop
+     * @param occupancy mask of all occupied boxes
+     * @return mask of attacked boxes
+     */
+
+    public static long bishopAttacks(final int boxId, final long occupancy)
+    {
+        return MagicBitBoards.getBishopAttacks(boxId, occupancy);
+    }
+
+    /**
+     * calculates boxes attacked by rook, every ray ends on the first occupied box
+     *
+     * @param boxId index of the box with rook
+     * @param occupancy mask of all occupied boxes
+     * @return mask of attacked boxes
+     */
+
+    public static long rookAttacks(final int boxId, final long occupancy)
+    {
+        return MagicBitBoards.getRookAttacks(boxId, occupancy);
+    }
+
+    /**
+     * calculates boxes attacked by queen, every ray ends on the first occupied box
+     *
+     * @param boxId index of the box with queen
+     * @param occupancy mask of all occupied boxes
+     * @return mask of attacked boxes
+     */
+
+    public static long queenAttacks(final int boxId, final long occupancy)
+    {
+        return MagicBitBoards.getBishopAttacks(boxId, occupancy) | MagicBitBoards.getRookAttacks(boxId, occupancy);
+    }
+
+    /**
+     * overridden definition of Object class equals method. Bit boards are equal if they describe the same position,
+     * so of all unmoved pieces only kings and rooks which keep castling rights are compared
+     *
+     * @param other object that will be compared with original object
+     * @return {@code true} if bit boards have the same pieces and castling rights; {@code false} otherwise
+     */
+
+    @Override
+    public boolean equals(final Object other)
+    {
+        if (this == other)
+        {
+            return true;
+        }
+        if (!(other instanceof BitBoard))
+        {
+            return false;
+        }
+        final BitBoard otherBitBoard = (BitBoard) other;
+        return Arrays.equals(this.pieceBitBoards, otherBitBoard.pieceBitBoards) &&
+                Zobrist.getCastlingRights(this) == Zobrist.getCastlingRights(otherBitBoard);
+    }
+
+    /**
+     * overridden definition of Object class hashCode method
+     *
+     * @return hash code of the bit board
+     */
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * Arrays.hashCode(this.pieceBitBoards) + Zobrist.getCastlingRights(this);
+    }
+
+    /**
+     * Overridden Object class toString method to convert object of this class to specified output data (type String)
+     *
+     * @return String which creates sign of whole board
+     */
+
+    @Override
+    public String toString()
+    {
+        final StringBuilder stringBuilder = new StringBuilder();
+        for (int i = 0; i < ChessUtil.GAME_BOARD_SIZE; i++)
+        {
+            stringBuilder.append(String.format("%3s", getBox(i).toString()));
+            if ((i + 1) % ChessUtil.NUMBER_OF_COLUMNS == 0)
+            {
+                stringBuilder.append("\n");
+            }
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * calculates index of the mask of pieces with given type and colour
+     *
+     * @param pieceType type of the pieces
+     * @param white colour of the pieces
+     * @return index in the pieceBitBoards array
+     */
+
+    private static int index(final PieceType pieceType, final boolean white)
+    {
+        return white ? pieceType.ordinal() : pieceType.ordinal() + PieceType.NUMBER_OF_TYPES;
+    }
+}
@@ -17,37 +17,48 @@ import java.util.stream.Stream;
 
 public class Board
 {
-    private List<BoardBox> gameBoard;
+    private final BitBoard bitBoard;
     private final Collection<Piece> whitePieces;
     private final Collection<Piece> blackPieces;
 
-    private final WhitePlayer whitePlayer;
-    private final BlackPlayer blackPlayer;
+    private final boolean isWhiteTurn;
+    private final Pawn enPassantPawn;
+    private final long zobristKey;
+    private final int middleGameScore;
+    private final int endGameScore;
 
-    private final Player currentPlayer;
+    // calculated on first request, board is immutable so racing threads calculate equal values
+    private volatile Collection<Move> whitePieceMoves;
+    private volatile Collection<Move> blackPieceMoves;
+    private volatile WhitePlayer whitePlayer;
+    private volatile BlackPlayer blackPlayer;
+    private volatile long[] attackMaps;
+    private volatile Move[][] legalMoveIndex;
+
+    private static final Move[] NO_MOVES = new Move[0];
 
     /**
-     * constructor of this class creates game board,
-     * calculates alive pieces for white and black player,
-     * calculates available moves for white and black player,
-     * creates white and black player and set actual round player
+     * constructor of this class creates bit board of the game,
+     * calculates alive pieces for white and black player and set actual round player.
+     * Available moves and players are calculated when they are requested for the first time.
      *
      * @param builder builder of board and the only way to create object of Board class
      */
 
     private Board(Builder builder)
     {
-        this.gameBoard = createGameBoard(builder);
-        this.whitePieces = caltulateAlivePieces(this.gameBoard, true);
-        this.blackPieces = caltulateAlivePieces(this.gameBoard, false);
-
-        final Collection<Move> avaliableWhiteMoves = calculateAvaliableMoves(this.whitePieces);
-        final Collection<Move> avaliableBlackMoves = calculateAvaliableMoves(this.blackPieces);
-
-        this.whitePlayer = new WhitePlayer(this, avaliableWhiteMoves, avaliableBlackMoves);
-        this.blackPlayer = new BlackPlayer(this, avaliableWhiteMoves, avaliableBlackMoves);
-
-        currentPlayer = builder.isWhiteTurn ? whitePlayer : blackPlayer;
+        this.bitBoard = BitBoard.createBitBoard(builder.boardConfig.values());
+        this.whitePieces = caltulateAlivePieces(builder, this.bitBoard.getWhiteOccupancy());
+        this.blackPieces = caltulateAlivePieces(builder, this.bitBoard.getBlackOccupancy());
+
+        this.isWhiteTurn = builder.isWhiteTurn;
+        this.enPassantPawn = builder.enPassantPawn;
+        this.zobristKey = builder.isZobristKeySet ? builder.zobristKey :
+                Zobrist.calculateKey(this.bitBoard, this.isWhiteTurn, this.enPassantPawn);
+        this.middleGameScore = builder.isPieceSquareScoreSet ? builder.middleGameScore :
+                PieceSquareTables.calculateMiddleGameScore(this.bitBoard);
+        this.endGameScore = builder.isPieceSquareScoreSet ? builder.endGameScore :
+                PieceSquareTables.calculateEndGameScore(this.bitBoard);
     }
 
     /**
@@ -58,29 +69,221 @@ public class Board
 
     public Player getCurrentPlayer()
     {
-        return  this.currentPlayer;
+        return this.isWhiteTurn ? getWhitePlayer() : getBlackPlayer();
     }
 
     /**
-     * getter of white player
+     * getter of white player, player is created on first request
      *
      * @return {@code player} - white player
      */
 
     public Player getWhitePlayer()
     {
-        return this.whitePlayer;
+        WhitePlayer player = this.whitePlayer;
+        if (player == null)
+        {
+            player = new WhitePlayer(this);
+            this.whitePlayer = player;
+        }
+        return player;
     }
 
     /**
-     * getter of black player
+     * getter of black player, player is created on first request
      *
      * @return {@code player} - black player
      */
 
     public Player getBlackPlayer()
     {
-        return this.blackPlayer;
+        BlackPlayer player = this.blackPlayer;
+        if (player == null)
+        {
+            player = new BlackPlayer(this);
+            this.blackPlayer = player;
+        }
+        return player;
+    }
+
+    /**
+     * check if the box is attacked by pieces of given colour. Attacks of both colours are calculated once
+     * on first request, every next check takes constant time.
+     *
+     * @param boxId index of the box on the game board
+     * @param byWhite colour of the attacking pieces
+     * @return {@code true} if any piece of given colour attacks the box; {@code false} otherwise
+     */
+
+    public boolean isSquareAttacked(final int boxId, final boolean byWhite)
+    {
+        return (getAttackMap(byWhite) & (1L << boxId)) != 0;
+    }
+
+    /**
+     * getter of mask of all boxes attacked by pieces of given colour
+     *
+     * @param byWhite colour of the attacking pieces
+     * @return mask of attacked boxes
+     */
+
+    public long getAttackMap(final boolean byWhite)
+    {
+        long[] maps = this.attackMaps;
+        if (maps == null)
+        {
+            maps = new long[]{this.bitBoard.calculateAttacks(true), this.bitBoard.calculateAttacks(false)};
+            this.attackMaps = maps;
+        }
+        return byWhite ? maps[0] : maps[1];
+    }
+
+    /**
+     * finds legal move of the current player by its starting box and destination. Legal moves are indexed
+     * by starting box on first request, so only moves of one piece are compared.
+     *
+     * @param position index of the box where the move starts
+     * @param destination index of the box where the move ends
+     * @return {@code move} with given boxes; {@code NULL_MOVE} if the current player has no such legal move
+     */
+
+    public Move getLegalMove(final int position, final int destination)
+    {
+        if (!ChessUtil.borderCheck(position) || !ChessUtil.borderCheck(destination))
+        {
+            return Move.NULL_MOVE;
+        }
+        Move[][] index = this.legalMoveIndex;
+        if (index == null)
+        {
+            index = calculateLegalMoveIndex();
+            this.legalMoveIndex = index;
+        }
+        for (Move move : index[position])
+        {
+            if (move.getDestination() == destination)
+            {
+                return move;
+            }
+        }
+        return Move.NULL_MOVE;
+    }
+
+    /**
+     * getter of moves calculated by logic of every piece of the player, castle moves aren't included.
+     * Moves are calculated on first request.
+     *
+     * @param isWhite defines if moves belong to white or black player
+     * @return list of moves of player pieces
+     */
+
+    public Collection<Move> getPieceMoves(final boolean isWhite)
+    {
+        if (isWhite)
+        {
+            Collection<Move> moves = this.whitePieceMoves;
+            if (moves == null)
+            {
+                moves = calculateAvaliableMoves(this.whitePieces);
+                this.whitePieceMoves = moves;
+            }
+            return moves;
+        }
+        Collection<Move> moves = this.blackPieceMoves;
+        if (moves == null)
+        {
+            moves = calculateAvaliableMoves(this.blackPieces);
+            this.blackPieceMoves = moves;
+        }
+        return moves;
+    }
+
+    /**
+     * calculates moves of player pieces which capture enemy pieces, quiet moves aren't created.
+     * Moves aren't cached, they are used by the search once per position.
+     *
+     * @param isWhite defines if moves belong to white or black player
+     * @return list of attack moves of player pieces
+     */
+
+    public Collection<Move> getCaptureMoves(final boolean isWhite)
+    {
+        final List<Move> captureMoves = new ArrayList<>();
+        for (Piece piece : isWhite ? this.whitePieces : this.blackPieces)
+        {
+            captureMoves.addAll(piece.captureLogic(this));
+        }
+        return Collections.unmodifiableList(captureMoves);
+    }
+
+    /**
+     * calculates moves which can stop a check: king moves to any box and moves of other pieces which capture
+     * the checking piece or block its ray. Castle moves aren't included. Moves aren't cached.
+     *
+     * @param isWhite defines if moves belong to white or black player
+     * @param checkMask mask of checking pieces and boxes between them and the king, {@code 0} in double check
+     * @return list of moves of player pieces
+     */
+
+    public Collection<Move> getEvasionMoves(final boolean isWhite, final long checkMask)
+    {
+        final List<Move> evasionMoves = new ArrayList<>();
+        for (Piece piece : isWhite ? this.whitePieces : this.blackPieces)
+        {
+            if (piece.isKing())
+            {
+                evasionMoves.addAll(piece.logic(this));
+            }
+            else if (checkMask != 0)
+            {
+                evasionMoves.addAll(piece.logic(this, checkMask));
+            }
+        }
+        return Collections.unmodifiableList(evasionMoves);
+    }
+
+    /**
+     * getter of en passant pawn, which means pawn that was moved by two boxes in the previous round
+     *
+     * @return {@code pawn} that can be captured en passant; {@code null} if there is no such pawn
+     */
+
+    public Pawn getEnPassantPawn()
+    {
+        return this.enPassantPawn;
+    }
+
+    /**
+     * getter of zobrist key of the board, key depends on pieces placement, turn, castling rights and en passant column
+     *
+     * @return 64 bit hash of the board
+     */
+
+    public long getZobristKey()
+    {
+        return this.zobristKey;
+    }
+
+    /**
+     * getter of middle game material and placement score, it is kept up to date by moves without scanning the board
+     *
+     * @return sum of middle game scores of all pieces, positive values are good for white
+     */
+
+    public int getMiddleGameScore()
+    {
+        return this.middleGameScore;
+    }
+
+    /**
+     * getter of end game material and placement score, it is kept up to date by moves without scanning the board
+     *
+     * @return sum of end game scores of all pieces, positive values are good for white
+     */
+
+    public int getEndGameScore()
+    {
+        return this.endGameScore;
     }
 
     /**
@@ -106,14 +309,25 @@ public class Board
     }
 
     /**
-     * getter of the box which contains boxId
+     * getter of the box which contains boxId, box is created by the bit board adapter
      *
      * @return {@code boardBox} - box on given ID
      */
 
     public BoardBox getBox(final int boxId)
     {
-        return gameBoard.get(boxId);
+        return this.bitBoard.getBox(boxId);
+    }
+
+    /**
+     * getter of packed representation of the pieces placement
+     *
+     * @return {@code bitBoard} of this board
+     */
+
+    public BitBoard getBitBoard()
+    {
+        return this.bitBoard;
     }
 
     /**
@@ -126,45 +340,80 @@ public class Board
     {
         final Builder builder = new Builder();
         //Black pieces
-        builder.setPiece(new Rook(0, false, true));
-        builder.setPiece(new Knight(1, false, true));
-        builder.setPiece(new Bishop(2, false, true));
-        builder.setPiece(new Queen(3, false, true));
-        builder.setPiece(new King(4, false, true));
-        builder.setPiece(new Bishop(5, false, true));
-        builder.setPiece(new Knight(6, false, true));
-        builder.setPiece(new Rook(7, false, true));
-        builder.setPiece(new Pawn(8, false, true));
-        builder.setPiece(new Pawn(9, false, true));
-        builder.setPiece(new Pawn(10, false, true));
-        builder.setPiece(new Pawn(11, false, true));
-        builder.setPiece(new Pawn(12, false, true));
-        builder.setPiece(new Pawn(13, false, true));
-        builder.setPiece(new Pawn(14, false, true));
-        builder.setPiece(new Pawn(15, false, true));
+        builder.setPiece(PieceType.ROOK.getPiece(0, false, true));
+        builder.setPiece(PieceType.KNIGHT.getPiece(1, false, true));
+        builder.setPiece(PieceType.BISHOP.getPiece(2, false, true));
+        builder.setPiece(PieceType.QUEEN.getPiece(3, false, true));
+        builder.setPiece(PieceType.KING.getPiece(4, false, true));
+        builder.setPiece(PieceType.BISHOP.getPiece(5, false, true));
+        builder.setPiece(PieceType.KNIGHT.getPiece(6, false, true));
+        builder.setPiece(PieceType.ROOK.getPiece(7, false, true));
+        builder.setPiece(PieceType.PAWN.getPiece(8, false, true));
+        builder.setPiece(PieceType.PAWN.getPiece(9, false, true));
+        builder.setPiece(PieceType.PAWN.getPiece(10, false, true));
+        builder.setPiece(PieceType.PAWN.getPiece(11, false, true));
+        builder.setPiece(PieceType.PAWN.getPiece(12, false, true));
+        builder.setPiece(PieceType.PAWN.getPiece(13, false, true));
+        builder.setPiece(PieceType.PAWN.getPiece(14, false, true));
+        builder.setPiece(PieceType.PAWN.getPiece(15, false, true));
         //White pieces
-        builder.setPiece(new Pawn(48, true, true));
-        builder.setPiece(new Pawn(49, true, true));
-        builder.setPiece(new Pawn(50, true, true));
-        builder.setPiece(new Pawn(51, true, true));
-        builder.setPiece(new Pawn(52, true, true));
-        builder.setPiece(new Pawn(53, true, true));
-        builder.setPiece(new Pawn(54, true, true));
-        builder.setPiece(new Pawn(55, true, true));
-        builder.setPiece(new Rook(56, true, true));
-        builder.setPiece(new Knight(57, true, true));
-        builder.setPiece(new Bishop(58, true, true));
-        builder.setPiece(new Queen(59, true, true));
-        builder.setPiece(new King(60, true, true));
-        builder.setPiece(new Bishop(61, true, true));
-        builder.setPiece(new Knight(62, true, true));
-        builder.setPiece(new Rook(63, true, true));
+        builder.setPiece(PieceType.PAWN.getPiece(48, true, true));
+        builder.setPiece(PieceType.PAWN.getPiece(49, true, true));
+        builder.setPiece(PieceType.PAWN.getPiece(50, true, true));
+        builder.setPiece(PieceType.PAWN.getPiece(51, true, true));
+        builder.setPiece(PieceType.PAWN.getPiece(52, true, true));
+        builder.setPiece(PieceType.PAWN.getPiece(53, true, true));
+        builder.setPiece(PieceType.PAWN.getPiece(54, true, true));
+        builder.setPiece(PieceType.PAWN.getPiece(55, true, true));
+        builder.setPiece(PieceType.ROOK.getPiece(56, true, true));
+        builder.setPiece(PieceType.KNIGHT.getPiece(57, true, true));
+        builder.setPiece(PieceType.BISHOP.getPiece(58, true, true));
+        builder.setPiece(PieceType.QUEEN.getPiece(59, true, true));
+        builder.setPiece(PieceType.KING.getPiece(60, true, true));
+        builder.setPiece(PieceType.BISHOP.getPiece(61, true, true));
+        builder.setPiece(PieceType.KNIGHT.getPiece(62, true, true));
+        builder.setPiece(PieceType.ROOK.getPiece(63, true, true));
         //Whose is this board(move)
         builder.setPlayerTurn(true);
 
         return builder.build();
     }
 
+    /**
+     * overridden definition of Object class equals method
+     *
+     * @param other object that will be compared with original object
+     * @return {@code true} if boards have the same pieces placement, castling rights, turn and en passant pawn; {@code false} otherwise
+     */
+
+    @Override
+    public boolean equals(final Object other)
+    {
+        if (this == other)
+        {
+            return true;
+        }
+        if (!(other instanceof Board))
+        {
+            return false;
+        }
+        final Board otherBoard = (Board) other;
+        return this.zobristKey == otherBoard.zobristKey && this.isWhiteTurn == otherBoard.isWhiteTurn &&
+                this.bitBoard.equals(otherBoard.bitBoard) && Objects.equals(this.enPassantPawn, otherBoard.enPassantPawn);
+    }
+
+    /**
+     * overridden definition of Object class hashCode method, based on zobrist key
+     *
+     * @return hash code of the board
+     */
+
+    @Override
+    public int hashCode()
+    {
+        return Long.hashCode(this.zobristKey);
+    }
+
     /**
      * Overridden Object class toString method to convert object of this class to specified output data (type String)
      *
@@ -177,7 +426,7 @@ public class Board
         final StringBuilder stringBuilder = new StringBuilder();
         for (int i = 0; i < ChessUtil.GAME_BOARD_SIZE; i++)
         {
-            stringBuilder.append(String.format("%3s", gameBoard.get(i).toString()));
+            stringBuilder.append(String.format("%3s", getBox(i).toString()));
             if ((i+1) % ChessUtil.NUMBER_OF_COLUMNS == 0)
             {
                 stringBuilder.append("\n");
@@ -187,60 +436,63 @@ public class Board
     }
 
     /**
-     * creator of game board boxes, create all boxes on the box
+     * caltulates all available moves that player can make based on moves that were calculated by logic of every piece
      *
-     * @param builder builder of Board class, that creates game board
-     * @return list of all board boxes
+     * @param pieces piece on the board that belong to the player
+     * @return list of all avaliable moves that player can make
      */
 
-    private static List<BoardBox> createGameBoard(final Builder builder)
+    private Collection<Move> calculateAvaliableMoves(final Collection<Piece> pieces)
     {
-        final List<BoardBox> boardBoxes = new ArrayList<>();
-        for (int i = 0; i < ChessUtil.GAME_BOARD_SIZE; i++)
+        final List<Move> avaliableMoves = new ArrayList<>();
+        for (Piece piece : pieces)
         {
-            boardBoxes.add(BoardBox.createBox(i, builder.boardConfig.get(i)));
+            avaliableMoves.addAll(piece.logic(this));
         }
-        return Collections.unmodifiableList(boardBoxes);
+        return Collections.unmodifiableList(avaliableMoves);
     }
 
     /**
-     * caltulates all available moves that player can make based on moves that were calculated by logic of every piece
+     * groups legal moves of the current player by their starting box
      *
-     * @param pieces piece on the board that belong to the player
-     * @return list of all avaliable moves that player can make
+     * @return array of moves of every box, boxes without moves have empty array
      */
 
-    private Collection<Move> calculateAvaliableMoves(final Collection<Piece> pieces)
+    private Move[][] calculateLegalMoveIndex()
     {
-        final List<Move> avaliableMoves = new ArrayList<>();
-        for (Piece piece : pieces)
+        final Collection<Move> legalMoves = getCurrentPlayer().getLegalMoves();
+        final int[] counts = new int[ChessUtil.GAME_BOARD_SIZE];
+        for (Move move : legalMoves)
         {
-            avaliableMoves.addAll(piece.logic(this));
+            counts[move.getPosition()]++;
         }
-        return Collections.unmodifiableList(avaliableMoves);
+        final Move[][] index = new Move[ChessUtil.GAME_BOARD_SIZE][];
+        for (int i = 0; i < ChessUtil.GAME_BOARD_SIZE; i++)
+        {
+            index[i] = counts[i] == 0 ? NO_MOVES : new Move[counts[i]];
+            counts[i] = 0;
+        }
+        for (Move move : legalMoves)
+        {
+            index[move.getPosition()][counts[move.getPosition()]++] = move;
+        }
+        return index;
     }
 
     /**
-     * calculates all pieces that belong to the player and are alive
+     * calculates all pieces that belong to the player and are alive, pieces are ordered by their position
      *
-     * @param gameBoard contains status of whole board
-     * @param isWhite defines if calculated pieces belong to white or black player
+     * @param builder builder of Board class, contains all pieces placed on the board
+     * @param occupancy mask of boxes occupied by pieces of the player
      * @return list of all alive pieces that belongs to the player
      */
 
-    private static Collection<Piece> caltulateAlivePieces(final List<BoardBox> gameBoard, final boolean isWhite)
+    private static Collection<Piece> caltulateAlivePieces(final Builder builder, final long occupancy)
     {
-        final List<Piece> alivePieces = new ArrayList<>();
-        for (final BoardBox boardBox : gameBoard)
+        final List<Piece> alivePieces = new ArrayList<>(Long.bitCount(occupancy));
+        for (long pieces = occupancy; pieces != 0; pieces &= pieces - 1)
         {
-            if (boardBox.isBoxOccupied())
-            {
-                final Piece piece = boardBox.getPiece();
-                if (piece.isWhite() == isWhite)
-                {
-                    alivePieces.add(piece);
-                }
-            }
+            alivePieces.add(builder.boardConfig.get(Long.numberOfTrailingZeros(pieces)));
         }
         return Collections.unmodifiableList(alivePieces);
     }
@@ -253,7 +505,7 @@ public class Board
 
     public Collection<Move> getAllAvaliableMoves()
     {
-        return Stream.concat(this.whitePlayer.getAvailableMoves().stream(), this.blackPlayer.getAvailableMoves().stream()).collect(Collectors.toUnmodifiableList());
+        return Stream.concat(getWhitePlayer().getAvailableMoves().stream(), getBlackPlayer().getAvailableMoves().stream()).collect(Collectors.toUnmodifiableList());
     }
 
     public static class Builder
@@ -261,7 +513,11 @@ public class Board
         Map<Integer, Piece> boardConfig;
         boolean isWhiteTurn;
         Pawn enPassantPawn;
-
+        long zobristKey;
+        boolean isZobristKeySet;
+        int middleGameScore;
+        int endGameScore;
+        boolean isPieceSquareScoreSet;
 
         public Builder()
         {
@@ -305,6 +561,38 @@ public class Board
             this.enPassantPawn = enPassantPawn;
         }
 
+        /**
+         * sets zobrist key of the built board, used when key is updated incrementally by the move,
+         * otherwise key is calculated from scratch by the board
+         *
+         * @param zobristKey key of the built board
+         * @return builder with defined zobrist key
+         */
+
+        public Builder setZobristKey(final long zobristKey)
+        {
+            this.zobristKey = zobristKey;
+            this.isZobristKeySet = true;
+            return this;
+        }
+
+        /**
+         * sets material and placement scores of the built board, used when scores are updated incrementally by the move,
+         * otherwise scores are calculated from scratch by the board
+         *
+         * @param middleGameScore middle game score of the built board
+         * @param endGameScore end game score of the built board
+         * @return builder with defined scores
+         */
+
+        public Builder setPieceSquareScores(final int middleGameScore, final int endGameScore)
+        {
+            this.middleGameScore = middleGameScore;
+            this.endGameScore = endGameScore;
+            this.isPieceSquareScoreSet = true;
+            return this;
+        }
+
         /**
          * build() method of the builder
          *
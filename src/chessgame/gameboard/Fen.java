@@ -0,0 +1,318 @@
+package chessgame.gameboard;
+
+import chessgame.ChessUtil;
+import chessgame.gameboard.Board.Builder;
+import chessgame.gameboard.chesspieces.Pawn;
+import chessgame.gameboard.chesspieces.Piece;
+import chessgame.gameboard.chesspieces.PieceType;
+
+/**
+ * reader and writer of Forsyth-Edwards notation. Reader goes once through the text and puts shared pieces
+ * straight into the builder. Castling rights are kept by first move flags of kings and rooks, pawns on their starting
+ * rows and other pieces on their starting boxes are also unmoved. Move counters are skipped when reading
+ * and written as {@code 0 1}, the board doesn't keep them.
+ */
+
+public final class Fen
+{
+    public static final String STARTING_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String PIECE_SIGNS = "PNBRQK";
+    private static final String STARTING_ROW = "RNBQKBNR";
+
+    private static final int WHITE_KING_BOX = 60;
+    private static final int BLACK_KING_BOX = 4;
+
+    private Fen()
+    {
+        throw new RuntimeException("not instantionable");
+    }
+
+    /**
+     * creates board from FEN
+     *
+     * @param fen position in Forsyth-Edwards notation
+     * @return board of the position
+     * @throws IllegalArgumentException if the text isn't valid FEN or the position can't be reached
+     */
+
+    public static Board createBoard(final String fen)
+    {
+        final Board board = fillBuilder(new Builder(), fen).build();
+        if (board.getCurrentPlayer().getOpponent().isInCheck())
+        {
+            throw invalid(fen, "side not to move is in check");
+        }
+        return board;
+    }
+
+    /**
+     * puts pieces, side to move, castling rights and en passant pawn of the position into the builder
+     *
+     * @param builder builder of the board, it should be empty
+     * @param fen position in Forsyth-Edwards notation
+     * @return the same builder
+     * @throws IllegalArgumentException if the text isn't valid FEN
+     */
+
+    public static Builder fillBuilder(final Builder builder, final String fen)
+    {
+        final int length = fen.length();
+        int index = skipSpaces(fen, 0);
+        int boxId = 0;
+        int column = 0;
+        long kingsAndRooks = 0L;
+        int whiteKings = 0;
+        int blackKings = 0;
+        for (; index < length && fen.charAt(index) != ' '; index++)
+        {
+            final char sign = fen.charAt(index);
+            if (sign == '/')
+            {
+                if (column != ChessUtil.NUMBER_OF_COLUMNS)
+                {
+                    throw invalid(fen, "row of wrong length");
+                }
+                column = 0;
+                continue;
+            }
+            if (sign >= '1' && sign <= '8')
+            {
+                column += sign - '0';
+                boxId += sign - '0';
+            }
+            else
+            {
+                final int type = PIECE_SIGNS.indexOf(Character.toUpperCase(sign));
+                if (type < 0)
+                {
+                    throw invalid(fen, "unexpected sign " + sign);
+                }
+                if (column >= ChessUtil.NUMBER_OF_COLUMNS || boxId >= ChessUtil.GAME_BOARD_SIZE)
+                {
+                    throw invalid(fen, "row of wrong length");
+                }
+                final PieceType pieceType = PieceType.getType(type);
+                final boolean white = Character.isUpperCase(sign);
+                if (pieceType == PieceType.KING || pieceType == PieceType.ROOK)
+                {
+                    // unmoved only if castling rights say so
+                    kingsAndRooks |= 1L << boxId;
+                    if (pieceType == PieceType.KING)
+                    {
+                        if (white)
+                        {
+                            whiteKings++;
+                        }
+                        else
+                        {
+                            blackKings++;
+                        }
+                    }
+                    builder.setPiece(pieceType.getPiece(boxId, white, false));
+                }
+                else
+                {
+                    builder.setPiece(pieceType.getPiece(boxId, white, isStartingBox(pieceType, white, boxId)));
+                }
+                column++;
+                boxId++;
+            }
+            if (column > ChessUtil.NUMBER_OF_COLUMNS)
+            {
+                throw invalid(fen, "row of wrong length");
+            }
+        }
+        if (boxId != ChessUtil.GAME_BOARD_SIZE || column != ChessUtil.NUMBER_OF_COLUMNS)
+        {
+            throw invalid(fen, "wrong number of boxes");
+        }
+        if (whiteKings != 1 || blackKings != 1)
+        {
+            throw invalid(fen, "each side needs exactly one king");
+        }
+
+        index = skipSpaces(fen, index);
+        if (index >= length || (fen.charAt(index) != 'w' && fen.charAt(index) != 'b'))
+        {
+            throw invalid(fen, "missing side to move");
+        }
+        final boolean whiteTurn = fen.charAt(index++) == 'w';
+        builder.setPlayerTurn(whiteTurn);
+
+        index = skipSpaces(fen, index);
+        for (; index < length && fen.charAt(index) != ' '; index++)
+        {
+            switch (fen.charAt(index))
+            {
+                case 'K': setCastlingRight(builder, kingsAndRooks, true, WHITE_KING_BOX, WHITE_KING_BOX + 3); break;
+                case 'Q': setCastlingRight(builder, kingsAndRooks, true, WHITE_KING_BOX, WHITE_KING_BOX - 4); break;
+                case 'k': setCastlingRight(builder, kingsAndRooks, false, BLACK_KING_BOX, BLACK_KING_BOX + 3); break;
+                case 'q': setCastlingRight(builder, kingsAndRooks, false, BLACK_KING_BOX, BLACK_KING_BOX - 4); break;
+                case '-': break;
+                default: throw invalid(fen, "unexpected castling sign " + fen.charAt(index));
+            }
+        }
+
+        index = skipSpaces(fen, index);
+        if (index < length && fen.charAt(index) != '-')
+        {
+            final int target = ChessUtil.getBoxId(fen, index);
+            if (target < 0)
+            {
+                throw invalid(fen, "invalid en passant box");
+            }
+            // pawn which jumped stands one row behind the box it passed
+            final Piece piece = builder.boardConfig.get(whiteTurn ? target + ChessUtil.NUMBER_OF_COLUMNS : target - ChessUtil.NUMBER_OF_COLUMNS);
+            if (piece instanceof Pawn && piece.isWhite() != whiteTurn)
+            {
+                builder.setEnPassant((Pawn) piece);
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * writes board in Forsyth-Edwards notation
+     *
+     * @param board written board
+     * @return position in Forsyth-Edwards notation
+     */
+
+    public static String write(final Board board)
+    {
+        final BitBoard bitBoard = board.getBitBoard();
+        final StringBuilder fen = new StringBuilder(90);
+        int emptyBoxes = 0;
+        for (int boxId = 0; boxId < ChessUtil.GAME_BOARD_SIZE; boxId++)
+        {
+            final PieceType pieceType = bitBoard.getPieceType(boxId);
+            if (pieceType == null)
+            {
+                emptyBoxes++;
+            }
+            else
+            {
+                if (emptyBoxes > 0)
+                {
+                    fen.append(emptyBoxes);
+                    emptyBoxes = 0;
+                }
+                final char sign = PIECE_SIGNS.charAt(pieceType.ordinal());
+                fen.append(bitBoard.isWhitePiece(boxId) ? sign : Character.toLowerCase(sign));
+            }
+            if ((boxId + 1) % ChessUtil.NUMBER_OF_COLUMNS == 0)
+            {
+                if (emptyBoxes > 0)
+                {
+                    fen.append(emptyBoxes);
+                    emptyBoxes = 0;
+                }
+                if (boxId < ChessUtil.GAME_BOARD_SIZE - 1)
+                {
+                    fen.append('/');
+                }
+            }
+        }
+
+        fen.append(board.getCurrentPlayer().isWhitePlayer() ? " w " : " b ");
+
+        final int castlingRights = Zobrist.getCastlingRights(bitBoard);
+        if (castlingRights == 0)
+        {
+            fen.append('-');
+        }
+        else
+        {
+            fen.append((castlingRights & Zobrist.WHITE_KING_SIDE_CASTLE) != 0 ? "K" : "")
+                    .append((castlingRights & Zobrist.WHITE_QUEEN_SIDE_CASTLE) != 0 ? "Q" : "")
+                    .append((castlingRights & Zobrist.BLACK_KING_SIDE_CASTLE) != 0 ? "k" : "")
+                    .append((castlingRights & Zobrist.BLACK_QUEEN_SIDE_CASTLE) != 0 ? "q" : "");
+        }
+
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        if (enPassantPawn == null)
+        {
+            fen.append(" -");
+        }
+        else
+        {
+            final int target = enPassantPawn.getPosition() + (enPassantPawn.isWhite() ? ChessUtil.NUMBER_OF_COLUMNS : -ChessUtil.NUMBER_OF_COLUMNS);
+            fen.append(' ').append(ChessUtil.getBoxName(target));
+        }
+        return fen.append(" 0 1").toString();
+    }
+
+    /**
+     * marks king and rook of the castling right as unmoved, right is ignored if they aren't on their boxes
+     *
+     * @param builder builder of the board
+     * @param kingsAndRooks mask of boxes with kings and rooks
+     * @param white colour of the pieces
+     * @param kingBox starting box of the king
+     * @param rookBox starting box of the rook
+     */
+
+    private static void setCastlingRight(final Builder builder, final long kingsAndRooks, final boolean white,
+                                         final int kingBox, final int rookBox)
+    {
+        final Piece king = builder.boardConfig.get(kingBox);
+        final Piece rook = builder.boardConfig.get(rookBox);
+        if ((kingsAndRooks & (1L << kingBox)) != 0 && (kingsAndRooks & (1L << rookBox)) != 0 &&
+                king.isKing() && king.isWhite() == white && rook.isRook() && rook.isWhite() == white)
+        {
+            builder.setPiece(PieceType.KING.getPiece(kingBox, white, true));
+            builder.setPiece(PieceType.ROOK.getPiece(rookBox, white, true));
+        }
+    }
+
+    /**
+     * check if the piece stands where it starts the game, pawns on their starting rows can still jump
+     *
+     * @param pieceType type of the piece
+     * @param white colour of the piece
+     * @param boxId index of the box with the piece
+     * @return {@code true} if the piece is on its starting box; {@code false} otherwise
+     */
+
+    private static boolean isStartingBox(final PieceType pieceType, final boolean white, final int boxId)
+    {
+        final int row = boxId / ChessUtil.NUMBER_OF_COLUMNS;
+        if (pieceType == PieceType.PAWN)
+        {
+            return row == (white ? ChessUtil.NUMBER_OF_COLUMNS - 2 : 1);
+        }
+        return row == (white ? ChessUtil.NUMBER_OF_COLUMNS - 1 : 0) &&
+                STARTING_ROW.charAt(boxId % ChessUtil.NUMBER_OF_COLUMNS) == PIECE_SIGNS.charAt(pieceType.ordinal());
+    }
+
+    /**
+     * skips spaces between fields
+     *
+     * @param fen position in Forsyth-Edwards notation
+     * @param index index of the first checked character
+     * @return index of the first character which isn't space
+     */
+
+    private static int skipSpaces(final String fen, int index)
+    {
+        while (index < fen.length() && fen.charAt(index) == ' ')
+        {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * creates exception for invalid text
+     *
+     * @param fen invalid text
+     * @param reason description of the error
+     * @return exception that will be thrown
+     */
+
+    private static IllegalArgumentException invalid(final String fen, final String reason)
+    {
+        return new IllegalArgumentException("invalid FEN \"" + fen + "\": " + reason);
+    }
+}
@@ -0,0 +1,191 @@
+package chessgame.gameboard;
+
+import chessgame.ChessUtil;
+
+/**
+ * magic bit boards of sliding pieces. Occupancy of boxes that can block a bishop or rook is multiplied by magic number
+ * of the box and the highest bits of the product index table with attacks for this occupancy. Magic numbers are found
+ * by random search when the class is loaded. Every row of the board starts the search from its own fixed seed, seeds are
+ * chosen so the search is short and it always finds the same numbers.
+ */
+
+final class MagicBitBoards
+{
+    private static final long[] SEEDS = {1776, 2983, 1738, 504, 159, 2380, 522, 30};
+
+    private static final long[] BISHOP_MASKS = new long[ChessUtil.GAME_BOARD_SIZE];
+    private static final long[] BISHOP_MAGICS = new long[ChessUtil.GAME_BOARD_SIZE];
+    private static final int[] BISHOP_SHIFTS = new int[ChessUtil.GAME_BOARD_SIZE];
+    private static final long[][] BISHOP_ATTACKS = new long[ChessUtil.GAME_BOARD_SIZE][];
+
+    private static final long[] ROOK_MASKS = new long[ChessUtil.GAME_BOARD_SIZE];
+    private static final long[] ROOK_MAGICS = new long[ChessUtil.GAME_BOARD_SIZE];
+    private static final int[] ROOK_SHIFTS = new int[ChessUtil.GAME_BOARD_SIZE];
+    private static final long[][] ROOK_ATTACKS = new long[ChessUtil.GAME_BOARD_SIZE][];
+
+    static
+    {
+        final long[] random = new long[1];
+        for (int boxId = 0; boxId < ChessUtil.GAME_BOARD_SIZE; boxId++)
+        {
+            if (boxId % ChessUtil.NUMBER_OF_COLUMNS == 0)
+            {
+                random[0] = SEEDS[boxId / ChessUtil.NUMBER_OF_COLUMNS];
+            }
+            BISHOP_MASKS[boxId] = calculateRelevantOccupancy(boxId, true);
+            BISHOP_SHIFTS[boxId] = Long.SIZE - Long.bitCount(BISHOP_MASKS[boxId]);
+            BISHOP_ATTACKS[boxId] = new long[1 << Long.bitCount(BISHOP_MASKS[boxId])];
+            BISHOP_MAGICS[boxId] = findMagic(boxId, true, BISHOP_MASKS[boxId], BISHOP_SHIFTS[boxId], BISHOP_ATTACKS[boxId], random);
+
+            ROOK_MASKS[boxId] = calculateRelevantOccupancy(boxId, false);
+            ROOK_SHIFTS[boxId] = Long.SIZE - Long.bitCount(ROOK_MASKS[boxId]);
+            ROOK_ATTACKS[boxId] = new long[1 << Long.bitCount(ROOK_MASKS[boxId])];
+            ROOK_MAGICS[boxId] = findMagic(boxId, false, ROOK_MASKS[boxId], ROOK_SHIFTS[boxId], ROOK_ATTACKS[boxId], random);
+        }
+    }
+
+    private MagicBitBoards()
+    {
+        throw new RuntimeException("not instantionable");
+    }
+
+    /**
+     * getter of boxes attacked by bishop
+     *
+     * @param boxId index of the box with bishop
+     * @param occupancy mask of all occupied boxes
+     * @return mask of attacked boxes, rays end on the first occupied box
+     */
+
+    static long getBishopAttacks(final int boxId, final long occupancy)
+    {
+        return BISHOP_ATTACKS[boxId][(int) (((occupancy & BISHOP_MASKS[boxId]) * BISHOP_MAGICS[boxId]) >>> BISHOP_SHIFTS[boxId])];
+    }
+
+    /**
+     * getter of boxes attacked by rook
+     *
+     * @param boxId index of the box with rook
+     * @param occupancy mask of all occupied boxes
+     * @return mask of attacked boxes, rays end on the first occupied box
+     */
+
+    static long getRookAttacks(final int boxId, final long occupancy)
+    {
+        return ROOK_ATTACKS[boxId][(int) (((occupancy & ROOK_MASKS[boxId]) * ROOK_MAGICS[boxId]) >>> ROOK_SHIFTS[boxId])];
+    }
+
+    /**
+     * calculates boxes that can block the piece, the last box of every ray is left out because it can't block anything
+     *
+     * @param boxId index of the box with the piece
+     * @param diagonal defines if the piece is bishop or rook
+     * @return mask of relevant boxes
+     */
+
+    private static long calculateRelevantOccupancy(final int boxId, final boolean diagonal)
+    {
+        long mask = 0L;
+        for (int direction = diagonal ? 1 : 0; direction < AttackTables.NUMBER_OF_DIRECTIONS; direction += 2)
+        {
+            final int[] ray = AttackTables.getRay(boxId, direction);
+            for (int i = 0; i < ray.length - 1; i++)
+            {
+                mask |= 1L << ray[i];
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * calculates boxes attacked by the piece by walking rays, used to fill the magic tables
+     *
+     * @param boxId index of the box with the piece
+     * @param diagonal defines if the piece is bishop or rook
+     * @param occupancy mask of occupied boxes
+     * @return mask of attacked boxes
+     */
+
+    private static long calculateAttacks(final int boxId, final boolean diagonal, final long occupancy)
+    {
+        long attacks = 0L;
+        for (int direction = diagonal ? 1 : 0; direction < AttackTables.NUMBER_OF_DIRECTIONS; direction += 2)
+        {
+            attacks |= AttackTables.getRayAttacks(boxId, direction, occupancy);
+        }
+        return attacks;
+    }
+
+    /**
+     * looks for magic number which maps every subset of relevant occupancy to index with correct attacks,
+     * different subsets can share index only if they have the same attacks
+     *
+     * @param boxId index of the box with the piece
+     * @param diagonal defines if the piece is bishop or rook
+     * @param mask relevant occupancy of the box
+     * @param shift number of bits dropped from the product
+     * @param attacks table which is filled with attacks of the found magic number
+     * @param random state of the generator of magic candidates
+     * @return magic number of the box
+     */
+
+    private static long findMagic(final int boxId, final boolean diagonal, final long mask, final int shift,
+                                  final long[] attacks, final long[] random)
+    {
+        final int size = attacks.length;
+        final long[] occupancies = new long[size];
+        final long[] references = new long[size];
+        long subset = 0L;
+        for (int i = 0; i < size; i++)
+        {
+            occupancies[i] = subset;
+            references[i] = calculateAttacks(boxId, diagonal, subset);
+            subset = (subset - mask) & mask;
+        }
+
+        final int[] usedBy = new int[size];
+        for (int attempt = 1; ; attempt++)
+        {
+            final long magic = nextRandom(random) & nextRandom(random) & nextRandom(random);
+            if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6)
+            {
+                continue;
+            }
+            boolean collision = false;
+            for (int i = 0; i < size && !collision; i++)
+            {
+                final int index = (int) ((occupancies[i] * magic) >>> shift);
+                if (usedBy[index] != attempt)
+                {
+                    usedBy[index] = attempt;
+                    attacks[index] = references[i];
+                }
+                else if (attacks[index] != references[i])
+                {
+                    collision = true;
+                }
+            }
+            if (!collision)
+            {
+                return magic;
+            }
+        }
+    }
+
+    /**
+     * xorshift generator of magic candidates, java.util.Random gives correlated candidates and makes the search much slower
+     *
+     * @param state one element array with state of the generator, it is updated
+     * @return next random number
+     */
+
+    private static long nextRandom(final long[] state)
+    {
+        long x = state[0];
+        x ^= x >>> 12;
+        x ^= x << 25;
+        x ^= x >>> 27;
+        state[0] = x;
+        return x * 2685821657736338717L;
+    }
+}
@@ -0,0 +1,240 @@
+package chessgame.gameboard;
+
+import chessgame.ChessUtil;
+import chessgame.gameboard.chesspieces.Piece;
+import chessgame.gameboard.chesspieces.PieceType;
+
+/**
+ * material and placement scores of pieces for middle game and end game. Tables are written from white point of view,
+ * the first row is the eighth row of the board like box indexes, black pieces use mirrored tables.
+ * Scores are positive for white pieces and negative for black pieces, so score of the board is sum of scores of its pieces
+ * and it can be updated by adding score of the piece after the move and subtracting score before the move.
+ */
+
+public final class PieceSquareTables
+{
+    private static final int[] PAWN_MIDDLE_GAME = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             10,  10,  20,  30,  30,  20,  10,  10,
+              5,   5,  10,  25,  25,  10,   5,   5,
+              0,   0,   0,  20,  20,   0,   0,   0,
+              5,  -5, -10,   0,   0, -10,  -5,   5,
+              5,  10,  10, -20, -20,  10,  10,   5,
+              0,   0,   0,   0,   0,   0,   0,   0};
+
+    private static final int[] PAWN_END_GAME = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             80,  80,  80,  80,  80,  80,  80,  80,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             30,  30,  30,  30,  30,  30,  30,  30,
+             15,  15,  15,  15,  15,  15,  15,  15,
+              5,   5,   5,   5,   5,   5,   5,   5,
+              0,   0,   0,   0,   0,   0,   0,   0,
+              0,   0,   0,   0,   0,   0,   0,   0};
+
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20,   0,   0,   0,   0, -20, -40,
+            -30,   0,  10,  15,  15,  10,   0, -30,
+            -30,   5,  15,  20,  20,  15,   5, -30,
+            -30,   0,  15,  20,  20,  15,   0, -30,
+            -30,   5,  10,  15,  15,  10,   5, -30,
+            -40, -20,   0,   5,   5,   0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50};
+
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,  10,  10,   5,   0, -10,
+            -10,   5,   5,  10,  10,   5,   5, -10,
+            -10,   0,  10,  10,  10,  10,   0, -10,
+            -10,  10,  10,  10,  10,  10,  10, -10,
+            -10,   5,   0,   0,   0,   0,   5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20};
+
+    private static final int[] ROOK = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+              5,  10,  10,  10,  10,  10,  10,   5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+              0,   0,   0,   5,   5,   0,   0,   0};
+
+    private static final int[] QUEEN = {
+            -20, -10, -10,  -5,  -5, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,   5,   5,   5,   0, -10,
+             -5,   0,   5,   5,   5,   5,   0,  -5,
+              0,   0,   5,   5,   5,   5,   0,  -5,
+            -10,   5,   5,   5,   5,   5,   0, -10,
+            -10,   0,   5,   0,   0,   0,   0, -10,
+            -20, -10, -10,  -5,  -5, -10, -10, -20};
+
+    private static final int[] KING_MIDDLE_GAME = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+             20,  20,   0,   0,   0,   0,  20,  20,
+             20,  30,  10,   0,   0,  10,  30,  20};
+
+    private static final int[] KING_END_GAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10,   0,   0, -10, -20, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -30,   0,   0,   0,   0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50};
+
+    private static final int[][] MIDDLE_GAME_TABLES = {PAWN_MIDDLE_GAME, KNIGHT, BISHOP, ROOK, QUEEN, KING_MIDDLE_GAME};
+    private static final int[][] END_GAME_TABLES = {PAWN_END_GAME, KNIGHT, BISHOP, ROOK, QUEEN, KING_END_GAME};
+
+    private static final int[][] MIDDLE_GAME_SCORES = createScores(MIDDLE_GAME_TABLES);
+    private static final int[][] END_GAME_SCORES = createScores(END_GAME_TABLES);
+
+    private PieceSquareTables()
+    {
+        throw new RuntimeException("not instantionable");
+    }
+
+    /**
+     * getter of middle game score of the piece
+     *
+     * @param piece chess piece
+     * @return material and placement score, positive for white piece and negative for black piece
+     */
+
+    public static int getMiddleGameScore(final Piece piece)
+    {
+        return getMiddleGameScore(piece.getPieceType(), piece.isWhite(), piece.getPosition());
+    }
+
+    /**
+     * getter of middle game score of the piece with given type and colour on given position
+     *
+     * @param pieceType type of the piece
+     * @param white colour of the piece
+     * @param position index of the box on the game board
+     * @return material and placement score, positive for white piece and negative for black piece
+     */
+
+    public static int getMiddleGameScore(final PieceType pieceType, final boolean white, final int position)
+    {
+        return MIDDLE_GAME_SCORES[index(pieceType, white)][position];
+    }
+
+    /**
+     * getter of end game score of the piece
+     *
+     * @param piece chess piece
+     * @return material and placement score, positive for white piece and negative for black piece
+     */
+
+    public static int getEndGameScore(final Piece piece)
+    {
+        return getEndGameScore(piece.getPieceType(), piece.isWhite(), piece.getPosition());
+    }
+
+    /**
+     * getter of end game score of the piece with given type and colour on given position
+     *
+     * @param pieceType type of the piece
+     * @param white colour of the piece
+     * @param position index of the box on the game board
+     * @return material and placement score, positive for white piece and negative for black piece
+     */
+
+    public static int getEndGameScore(final PieceType pieceType, final boolean white, final int position)
+    {
+        return END_GAME_SCORES[index(pieceType, white)][position];
+    }
+
+    /**
+     * calculates middle game score of all pieces from scratch
+     *
+     * @param bitBoard pieces placement
+     * @return sum of scores of all pieces
+     */
+
+    public static int calculateMiddleGameScore(final BitBoard bitBoard)
+    {
+        return calculateScore(bitBoard, MIDDLE_GAME_SCORES);
+    }
+
+    /**
+     * calculates end game score of all pieces from scratch
+     *
+     * @param bitBoard pieces placement
+     * @return sum of scores of all pieces
+     */
+
+    public static int calculateEndGameScore(final BitBoard bitBoard)
+    {
+        return calculateScore(bitBoard, END_GAME_SCORES);
+    }
+
+    /**
+     * sums scores of all pieces
+     *
+     * @param bitBoard pieces placement
+     * @param scores scores indexed by piece type and colour and by position
+     * @return sum of scores of all pieces
+     */
+
+    private static int calculateScore(final BitBoard bitBoard, final int[][] scores)
+    {
+        int score = 0;
+        for (int i = 0; i < 2 * PieceType.NUMBER_OF_TYPES; i++)
+        {
+            final PieceType pieceType = PieceType.getType(i % PieceType.NUMBER_OF_TYPES);
+            for (long pieces = bitBoard.getPieceBitBoard(pieceType, i < PieceType.NUMBER_OF_TYPES); pieces != 0; pieces &= pieces - 1)
+            {
+                score += scores[i][Long.numberOfTrailingZeros(pieces)];
+            }
+        }
+        return score;
+    }
+
+    /**
+     * adds material value to the placement tables and mirrors them for black pieces, king has no material value
+     *
+     * @param tables placement tables of white pieces in order of piece types
+     * @return scores indexed by piece type and colour and by position
+     */
+
+    private static int[][] createScores(final int[][] tables)
+    {
+        final int[][] scores = new int[2 * PieceType.NUMBER_OF_TYPES][ChessUtil.GAME_BOARD_SIZE];
+        for (int type = 0; type < PieceType.NUMBER_OF_TYPES; type++)
+        {
+            final PieceType pieceType = PieceType.getType(type);
+            final int value = pieceType == PieceType.KING ? 0 : pieceType.getValue();
+            for (int position = 0; position < ChessUtil.GAME_BOARD_SIZE; position++)
+            {
+                scores[index(pieceType, true)][position] = value + tables[type][position];
+                scores[index(pieceType, false)][position] = -(value + tables[type][position ^ 56]);
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * calculates index of the scores of pieces with given type and colour
+     *
+     * @param pieceType type of the pieces
+     * @param white colour of the pieces
+     * @return index in the scores array
+     */
+
+    private static int index(final PieceType pieceType, final boolean white)
+    {
+        return white ? pieceType.ordinal() : pieceType.ordinal() + PieceType.NUMBER_OF_TYPES;
+    }
+}
@@ -0,0 +1,603 @@
+package chessgame.gameboard;
+
+import chessgame.ChessUtil;
+import chessgame.gameboard.chesspieces.Pawn;
+import chessgame.gameboard.chesspieces.Piece;
+import chessgame.gameboard.chesspieces.PieceType;
+import chessgame.gameboard.move.Move;
+import chessgame.gameboard.move.MoveList;
+import chessgame.gameboard.move.PackedMove;
+
+import java.util.Arrays;
+
+/**
+ * mutable board used by searches. Unlike {@link Board} it is not rebuilt after every move,
+ * moves are applied in place and can be reverted in reverse order with unmakeMove.
+ * Moves are generated as {@link PackedMove} ints into reusable {@link MoveList}, so generation doesn't allocate.
+ */
+
+public final class SearchBoard
+{
+    private static final int INITIAL_STACK_SIZE = 128;
+
+    private final Piece[] pieces;
+    private final long[] pieceBitBoards;
+    private long whiteOccupancy;
+    private long blackOccupancy;
+    private boolean whiteTurn;
+    private Pawn enPassantPawn;
+
+    private int[] moveStack;
+    private Piece[] movedPieceStack;
+    private Piece[] capturedPieceStack;
+    private Piece[] castleRookStack;
+    private Pawn[] enPassantStack;
+    private int ply;
+
+    /**
+     * creates search board with the same position as given board
+     *
+     * @param board board with starting position of the search
+     */
+
+    public SearchBoard(final Board board)
+    {
+        this.pieces = new Piece[ChessUtil.GAME_BOARD_SIZE];
+        this.pieceBitBoards = new long[2 * PieceType.NUMBER_OF_TYPES];
+        for (Piece piece : board.getWhitePieces())
+        {
+            putPiece(piece);
+        }
+        for (Piece piece : board.getBlackPieces())
+        {
+            putPiece(piece);
+        }
+        this.whiteTurn = board.getCurrentPlayer().isWhitePlayer();
+        this.enPassantPawn = board.getEnPassantPawn();
+
+        this.moveStack = new int[INITIAL_STACK_SIZE];
+        this.movedPieceStack = new Piece[INITIAL_STACK_SIZE];
+        this.capturedPieceStack = new Piece[INITIAL_STACK_SIZE];
+        this.castleRookStack = new Piece[INITIAL_STACK_SIZE];
+        this.enPassantStack = new Pawn[INITIAL_STACK_SIZE];
+    }
+
+    /**
+     * applies move to this board, move has to be created for the current position
+     *
+     * @param move move that will be made
+     * @throws RuntimeException if moved piece isn't placed on this board or it isn't its turn
+     */
+
+    public void makeMove(final Move move)
+    {
+        makeMove(PackedMove.fromMove(move));
+    }
+
+    /**
+     * applies packed move to this board, move has to be generated for the current position
+     *
+     * @param move packed move that will be made
+     * @throws RuntimeException if moved piece isn't placed on this board or it isn't its turn
+     */
+
+    public void makeMove(final int move)
+    {
+        final int position = PackedMove.getPosition(move);
+        final int destination = PackedMove.getDestination(move);
+        final Piece movedPiece = this.pieces[position];
+        if (move == PackedMove.NO_MOVE || movedPiece == null || movedPiece.isWhite() != this.whiteTurn)
+        {
+            throw new RuntimeException("can not make move of piece that is not on the search board");
+        }
+        if (this.ply == this.moveStack.length)
+        {
+            growStacks();
+        }
+        final Piece capturedPiece = PackedMove.isAttackMove(move) ? this.pieces[getCapturedPosition(move)] : null;
+
+        this.moveStack[this.ply] = move;
+        this.movedPieceStack[this.ply] = movedPiece;
+        this.capturedPieceStack[this.ply] = capturedPiece;
+        this.enPassantStack[this.ply] = this.enPassantPawn;
+        this.castleRookStack[this.ply] = null;
+
+        if (capturedPiece != null)
+        {
+            removePiece(capturedPiece);
+        }
+        removePiece(movedPiece);
+        final Piece piece = movedPiece.getPieceType().getPiece(destination, movedPiece.isWhite(), false);
+        putPiece(piece);
+
+        if (PackedMove.isCastlingMove(move))
+        {
+            final Piece castleRook = this.pieces[getCastleRookPosition(move)];
+            this.castleRookStack[this.ply] = castleRook;
+            removePiece(castleRook);
+            putPiece(PieceType.ROOK.getPiece(getCastleRookDestination(move), castleRook.isWhite(), false));
+        }
+        this.enPassantPawn = PackedMove.hasFlag(move, PackedMove.PAWN_JUMP) ? (Pawn) piece : null;
+        this.whiteTurn = !this.whiteTurn;
+        this.ply++;
+    }
+
+    /**
+     * reverts the last move made on this board
+     *
+     * @throws RuntimeException if there is no move to revert
+     */
+
+    public void unmakeMove()
+    {
+        if (this.ply == 0)
+        {
+            throw new RuntimeException("there is no move to unmake");
+        }
+        this.ply--;
+        final int move = this.moveStack[this.ply];
+
+        final Piece castleRook = this.castleRookStack[this.ply];
+        if (castleRook != null)
+        {
+            removePiece(this.pieces[getCastleRookDestination(move)]);
+            putPiece(castleRook);
+        }
+        removePiece(this.pieces[PackedMove.getDestination(move)]);
+        putPiece(this.movedPieceStack[this.ply]);
+        if (this.capturedPieceStack[this.ply] != null)
+        {
+            putPiece(this.capturedPieceStack[this.ply]);
+        }
+        this.enPassantPawn = this.enPassantStack[this.ply];
+        this.whiteTurn = !this.whiteTurn;
+
+        this.moveStack[this.ply] = PackedMove.NO_MOVE;
+        this.movedPieceStack[this.ply] = null;
+        this.capturedPieceStack[this.ply] = null;
+        this.castleRookStack[this.ply] = null;
+        this.enPassantStack[this.ply] = null;
+    }
+
+    /**
+     * generates moves of the current player by the same rules as logic of the pieces and castling of the players.
+     * Moves can leave own king attacked, they are checked by {@link #isLegal}.
+     *
+     * @param moves list which is cleared and filled with packed moves
+     */
+
+    public void generateMoves(final MoveList moves)
+    {
+        moves.clear();
+        final boolean white = this.whiteTurn;
+        final long ownPieces = getOccupancy(white);
+        final long enemyPieces = getOccupancy(!white);
+        final long occupancy = ownPieces | enemyPieces;
+
+        generatePawnMoves(moves, white, occupancy, enemyPieces);
+        for (long knights = getPieceBitBoard(PieceType.KNIGHT, white); knights != 0; knights &= knights - 1)
+        {
+            final int position = Long.numberOfTrailingZeros(knights);
+            addMoves(moves, position, PieceType.KNIGHT, AttackTables.getKnightAttacks(position) & ~ownPieces);
+        }
+        for (long bishops = getPieceBitBoard(PieceType.BISHOP, white); bishops != 0; bishops &= bishops - 1)
+        {
+            final int position = Long.numberOfTrailingZeros(bishops);
+            addMoves(moves, position, PieceType.BISHOP, BitBoard.bishopAttacks(position, occupancy) & ~ownPieces);
+        }
+        for (long rooks = getPieceBitBoard(PieceType.ROOK, white); rooks != 0; rooks &= rooks - 1)
+        {
+            final int position = Long.numberOfTrailingZeros(rooks);
+            addMoves(moves, position, PieceType.ROOK, BitBoard.rookAttacks(position, occupancy) & ~ownPieces);
+        }
+        for (long queens = getPieceBitBoard(PieceType.QUEEN, white); queens != 0; queens &= queens - 1)
+        {
+            final int position = Long.numberOfTrailingZeros(queens);
+            addMoves(moves, position, PieceType.QUEEN, BitBoard.queenAttacks(position, occupancy) & ~ownPieces);
+        }
+        for (long kings = getPieceBitBoard(PieceType.KING, white); kings != 0; kings &= kings - 1)
+        {
+            final int position = Long.numberOfTrailingZeros(kings);
+            addMoves(moves, position, PieceType.KING, AttackTables.getKingAttacks(position) & ~ownPieces);
+            generateCastles(moves, position, white, occupancy);
+        }
+    }
+
+    /**
+     * generates legal moves of the current player, every generated move is made and reverted to check king safety
+     *
+     * @param moves list which is cleared and filled with packed moves
+     */
+
+    public void generateLegalMoves(final MoveList moves)
+    {
+        generateMoves(moves);
+        for (int i = moves.size() - 1; i >= 0; i--)
+        {
+            if (!isLegal(moves.get(i)))
+            {
+                moves.remove(i);
+            }
+        }
+    }
+
+    /**
+     * check if the move doesn't leave own king attacked
+     *
+     * @param move packed move generated for the current position
+     * @return {@code true} if own king isn't attacked after the move; {@code false} otherwise
+     */
+
+    public boolean isLegal(final int move)
+    {
+        makeMove(move);
+        final boolean legal = !isKingAttacked(!this.whiteTurn);
+        unmakeMove();
+        return legal;
+    }
+
+    /**
+     * check if the king of the current player is attacked
+     *
+     * @return {@code true} if current player is in check; {@code false} otherwise
+     */
+
+    public boolean isInCheck()
+    {
+        return isKingAttacked(this.whiteTurn);
+    }
+
+    /**
+     * check if the king of given colour is attacked, after the move king of the player that made it
+     * has to be checked to find out if the move was legal
+     *
+     * @param white colour of the king
+     * @return {@code true} if the king is attacked; {@code false} otherwise or if there is no such king
+     */
+
+    public boolean isKingAttacked(final boolean white)
+    {
+        final long king = getPieceBitBoard(PieceType.KING, white);
+        return king != 0 && isSquareAttacked(Long.numberOfTrailingZeros(king), !white);
+    }
+
+    /**
+     * check if the box is attacked by pieces of given colour
+     *
+     * @param boxId index of the box on the game board
+     * @param byWhite colour of the attacking pieces
+     * @return {@code true} if any piece of given colour attacks the box; {@code false} otherwise
+     */
+
+    public boolean isSquareAttacked(final int boxId, final boolean byWhite)
+    {
+        final long occupancy = getOccupancy();
+        final long queens = getPieceBitBoard(PieceType.QUEEN, byWhite);
+        return (AttackTables.getPawnAttacks(boxId, !byWhite) & getPieceBitBoard(PieceType.PAWN, byWhite)) != 0 ||
+                (AttackTables.getKnightAttacks(boxId) & getPieceBitBoard(PieceType.KNIGHT, byWhite)) != 0 ||
+                (AttackTables.getKingAttacks(boxId) & getPieceBitBoard(PieceType.KING, byWhite)) != 0 ||
+                (BitBoard.bishopAttacks(boxId, occupancy) & (getPieceBitBoard(PieceType.BISHOP, byWhite) | queens)) != 0 ||
+                (BitBoard.rookAttacks(boxId, occupancy) & (getPieceBitBoard(PieceType.ROOK, byWhite) | queens)) != 0;
+    }
+
+    /**
+     * getter of number of moves that were made and can be reverted
+     *
+     * @return number of moves on the undo stack
+     */
+
+    public int getPly()
+    {
+        return this.ply;
+    }
+
+    /**
+     * check if white player is making move
+     *
+     * @return {@code true} if it is white player turn; {@code false} otherwise
+     */
+
+    public boolean isWhiteTurn()
+    {
+        return this.whiteTurn;
+    }
+
+    /**
+     * getter of en passant pawn, which means pawn that was moved by two boxes in the previous round
+     *
+     * @return {@code pawn} that can be captured en passant; {@code null} if there is no such pawn
+     */
+
+    public Pawn getEnPassantPawn()
+    {
+        return this.enPassantPawn;
+    }
+
+    /**
+     * getter of the piece placed on the box
+     *
+     * @param boxId index of the box on the game board
+     * @return piece placed on the box or {@code null} if the box is empty
+     */
+
+    public Piece getPiece(final int boxId)
+    {
+        return this.pieces[boxId];
+    }
+
+    /**
+     * getter of the box which contains boxId
+     *
+     * @param boxId index of the box on the game board
+     * @return {@code boardBox} - box on given ID
+     */
+
+    public BoardBox getBox(final int boxId)
+    {
+        return BoardBox.createBox(boxId, this.pieces[boxId]);
+    }
+
+    /**
+     * getter of the mask of pieces with given type and colour
+     *
+     * @param pieceType type of the pieces
+     * @param white colour of the pieces
+     * @return mask of boxes occupied by such pieces
+     */
+
+    public long getPieceBitBoard(final PieceType pieceType, final boolean white)
+    {
+        return this.pieceBitBoards[index(pieceType, white)];
+    }
+
+    /**
+     * getter of the mask of boxes occupied by pieces of given colour
+     *
+     * @param white colour of the pieces
+     * @return mask of pieces of given colour
+     */
+
+    public long getOccupancy(final boolean white)
+    {
+        return white ? this.whiteOccupancy : this.blackOccupancy;
+    }
+
+    /**
+     * getter of the mask of all occupied boxes
+     *
+     * @return mask of all pieces
+     */
+
+    public long getOccupancy()
+    {
+        return this.whiteOccupancy | this.blackOccupancy;
+    }
+
+    /**
+     * creates immutable board with the current position of this search board
+     *
+     * @return newly build board
+     */
+
+    public Board toBoard()
+    {
+        final Board.Builder builder = new Board.Builder();
+        for (Piece piece : this.pieces)
+        {
+            if (piece != null)
+            {
+                builder.setPiece(piece);
+            }
+        }
+        builder.setEnPassant(this.enPassantPawn);
+        builder.setPlayerTurn(this.whiteTurn);
+        return builder.build();
+    }
+
+    /**
+     * generates pawn moves by one and two boxes forward and attack moves, pawns move towards lower indexes if they are white
+     *
+     * @param moves list of generated moves
+     * @param white colour of the pawns
+     * @param occupancy mask of all occupied boxes
+     * @param enemyPieces mask of boxes occupied by enemy pieces
+     */
+
+    private void generatePawnMoves(final MoveList moves, final boolean white, final long occupancy, final long enemyPieces)
+    {
+        final int step = white ? -ChessUtil.NUMBER_OF_COLUMNS : ChessUtil.NUMBER_OF_COLUMNS;
+        for (long pawns = getPieceBitBoard(PieceType.PAWN, white); pawns != 0; pawns &= pawns - 1)
+        {
+            final int position = Long.numberOfTrailingZeros(pawns);
+            final int destination = position + step;
+            if (ChessUtil.borderCheck(destination) && (occupancy & (1L << destination)) == 0)
+            {
+                moves.add(PackedMove.create(position, destination, PieceType.PAWN.ordinal(), white, -1, 0));
+                final int jumpDestination = destination + step;
+                if (this.pieces[position].isFirstMove() &&
+                        (white ? ChessUtil.isItSeventhRow(position) : ChessUtil.isItSecondRow(position)) &&
+                        (occupancy & (1L << jumpDestination)) == 0)
+                {
+                    moves.add(PackedMove.create(position, jumpDestination, PieceType.PAWN.ordinal(), white, -1, PackedMove.PAWN_JUMP));
+                }
+            }
+            addMoves(moves, position, PieceType.PAWN, AttackTables.getPawnAttacks(position, white) & enemyPieces);
+        }
+    }
+
+    /**
+     * generates castle moves, king and rook haven't moved yet, boxes between them are empty
+     * and king doesn't stand on, pass or land on attacked box
+     *
+     * @param moves list of generated moves
+     * @param kingPosition index of the box with the king
+     * @param white colour of the king
+     * @param occupancy mask of all occupied boxes
+     */
+
+    private void generateCastles(final MoveList moves, final int kingPosition, final boolean white, final long occupancy)
+    {
+        if (!this.pieces[kingPosition].isFirstMove() || isSquareAttacked(kingPosition, !white))
+        {
+            return;
+        }
+        final int row = white ? ChessUtil.GAME_BOARD_SIZE - ChessUtil.NUMBER_OF_COLUMNS : 0;
+        if ((occupancy & (0x60L << row)) == 0 && isUnmovedRook(row + 7, white) &&
+                !isSquareAttacked(row + 5, !white) && !isSquareAttacked(row + 6, !white))
+        {
+            moves.add(PackedMove.create(kingPosition, row + 6, PieceType.KING.ordinal(), white, -1, PackedMove.KING_SIDE_CASTLE));
+        }
+        if ((occupancy & (0x0EL << row)) == 0 && isUnmovedRook(row, white) &&
+                !isSquareAttacked(row + 3, !white) && !isSquareAttacked(row + 2, !white))
+        {
+            moves.add(PackedMove.create(kingPosition, row + 2, PieceType.KING.ordinal(), white, -1, PackedMove.QUEEN_SIDE_CASTLE));
+        }
+    }
+
+    /**
+     * check if there is rook of given colour which hasn't moved yet on the box
+     *
+     * @param boxId index of the box on the game board
+     * @param white colour of the rook
+     * @return {@code true} if there is such rook; {@code false} otherwise
+     */
+
+    private boolean isUnmovedRook(final int boxId, final boolean white)
+    {
+        final Piece piece = this.pieces[boxId];
+        return piece != null && piece.isRook() && piece.isWhite() == white && piece.isFirstMove();
+    }
+
+    /**
+     * adds moves of the piece to every box of the mask
+     *
+     * @param moves list of generated moves
+     * @param position index of the box with the piece
+     * @param pieceType type of the piece
+     * @param destinations mask of destination boxes, boxes with own pieces have to be removed
+     */
+
+    private void addMoves(final MoveList moves, final int position, final PieceType pieceType, final long destinations)
+    {
+        final int movedPiece = pieceType.ordinal();
+        for (long boxes = destinations; boxes != 0; boxes &= boxes - 1)
+        {
+            final int destination = Long.numberOfTrailingZeros(boxes);
+            final Piece capturedPiece = this.pieces[destination];
+            moves.add(PackedMove.create(position, destination, movedPiece, this.whiteTurn,
+                    capturedPiece == null ? -1 : capturedPiece.getPieceType().ordinal(), 0));
+        }
+    }
+
+    /**
+     * calculates box of the captured piece, en passant captures pawn behind the destination
+     *
+     * @param move packed attack move
+     * @return index of the box with the captured piece
+     */
+
+    private static int getCapturedPosition(final int move)
+    {
+        final int destination = PackedMove.getDestination(move);
+        if (PackedMove.hasFlag(move, PackedMove.EN_PASSANT))
+        {
+            return destination + (PackedMove.isWhite(move) ? ChessUtil.NUMBER_OF_COLUMNS : -ChessUtil.NUMBER_OF_COLUMNS);
+        }
+        return destination;
+    }
+
+    /**
+     * calculates box of the castled rook before the move
+     *
+     * @param move packed castle move
+     * @return index of the box in the corner next to the king destination
+     */
+
+    private static int getCastleRookPosition(final int move)
+    {
+        final int destination = PackedMove.getDestination(move);
+        return PackedMove.hasFlag(move, PackedMove.KING_SIDE_CASTLE) ? destination + 1 : destination - 2;
+    }
+
+    /**
+     * calculates box of the castled rook after the move
+     *
+     * @param move packed castle move
+     * @return index of the box which the king has passed
+     */
+
+    private static int getCastleRookDestination(final int move)
+    {
+        final int destination = PackedMove.getDestination(move);
+        return PackedMove.hasFlag(move, PackedMove.KING_SIDE_CASTLE) ? destination - 1 : destination + 1;
+    }
+
+    /**
+     * places piece on its position
+     *
+     * @param piece piece that will be placed
+     */
+
+    private void putPiece(final Piece piece)
+    {
+        final long boxMask = 1L << piece.getPosition();
+        this.pieces[piece.getPosition()] = piece;
+        this.pieceBitBoards[index(piece.getPieceType(), piece.isWhite())] |= boxMask;
+        if (piece.isWhite())
+        {
+            this.whiteOccupancy |= boxMask;
+        }
+        else
+        {
+            this.blackOccupancy |= boxMask;
+        }
+    }
+
+    /**
+     * removes piece from its position
+     *
+     * @param piece piece that will be removed
+     */
+
+    private void removePiece(final Piece piece)
+    {
+        final long boxMask = ~(1L << piece.getPosition());
+        this.pieces[piece.getPosition()] = null;
+        this.pieceBitBoards[index(piece.getPieceType(), piece.isWhite())] &= boxMask;
+        if (piece.isWhite())
+        {
+            this.whiteOccupancy &= boxMask;
+        }
+        else
+        {
+            this.blackOccupancy &= boxMask;
+        }
+    }
+
+    /**
+     * doubles size of all undo stacks
+     */
+
+    private void growStacks()
+    {
+        final int size = 2 * this.moveStack.length;
+        this.moveStack = Arrays.copyOf(this.moveStack, size);
+        this.movedPieceStack = Arrays.copyOf(this.movedPieceStack, size);
+        this.capturedPieceStack = Arrays.copyOf(this.capturedPieceStack, size);
+        this.castleRookStack = Arrays.copyOf(this.castleRookStack, size);
+        this.enPassantStack = Arrays.copyOf(this.enPassantStack, size);
+    }
+
+    /**
+     * calculates index of the mask of pieces with given type and colour
+     *
+     * @param pieceType type of the pieces
+     * @param white colour of the pieces
+     * @return index in the pieceBitBoards array
+     */
+
+    private static int index(final PieceType pieceType, final boolean white)
+    {
+        return white ? pieceType.ordinal() : pieceType.ordinal() + PieceType.NUMBER_OF_TYPES;
+    }
+}
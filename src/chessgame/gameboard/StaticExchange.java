@@ -0,0 +1,144 @@
+package chessgame.gameboard;
+
+import chessgame.gameboard.chesspieces.PieceType;
+import chessgame.gameboard.move.Move;
+
+/**
+ * static exchange evaluation, resolves all captures on one box without making any move. Both players always recapture
+ * with their least valuable attacker and can stop when next capture would lose material. Sliders standing behind
+ * the pieces which already captured join the exchange as x-ray attackers.
+ */
+
+public final class StaticExchange
+{
+    private static final int MAX_EXCHANGE_LENGTH = 32;
+
+    private StaticExchange()
+    {
+        throw new RuntimeException("not instantionable");
+    }
+
+    /**
+     * evaluates material balance of the move followed by the best sequence of recaptures on its destination
+     *
+     * @param board board on which the move is made
+     * @param move move that starts the exchange
+     * @return material won by the player making the move, negative if the move loses material
+     */
+
+    public static int evaluate(final Board board, final Move move)
+    {
+        return evaluate(board.getBitBoard(), move.getPosition(), move.getDestination());
+    }
+
+    /**
+     * check if the capture loses material. Capture of the piece which is at least as valuable as the attacker
+     * can't lose material, so the exchange is resolved only for other captures
+     *
+     * @param board board on which the move is made
+     * @param move attack move
+     * @return {@code true} if the capture loses material after all recaptures; {@code false} otherwise
+     */
+
+    public static boolean isLosingCapture(final Board board, final Move move)
+    {
+        if (move.getAttackedPiece().getPieceType().getValue() >= move.getMovedPiece().getPieceType().getValue())
+        {
+            return false;
+        }
+        return evaluate(board, move) < 0;
+    }
+
+    /**
+     * evaluates material balance of the move followed by the best sequence of recaptures on its destination
+     *
+     * @param bitBoard pieces placement
+     * @param position index of the box with the moving piece
+     * @param destination index of the destination box
+     * @return material won by the player making the move, negative if the move loses material
+     */
+
+    public static int evaluate(final BitBoard bitBoard, final int position, final int destination)
+    {
+        final int[] gains = new int[MAX_EXCHANGE_LENGTH];
+        final PieceType victim = bitBoard.getPieceType(destination);
+        gains[0] = victim == null ? 0 : victim.getValue();
+
+        PieceType attacker = bitBoard.getPieceType(position);
+        boolean white = bitBoard.isWhitePiece(position);
+        long occupancy = bitBoard.getOccupancy() & ~(1L << position);
+        long attackers = calculateAttackers(bitBoard, destination, occupancy) & occupancy;
+
+        int depth = 0;
+        while (depth < MAX_EXCHANGE_LENGTH - 1)
+        {
+            depth++;
+            white = !white;
+            // piece standing on the destination is captured by the next attacker
+            gains[depth] = attacker.getValue() - gains[depth - 1];
+            if (Math.max(-gains[depth - 1], gains[depth]) < 0)
+            {
+                break;
+            }
+            final long ownAttackers = attackers & bitBoard.getOccupancy(white);
+            if (ownAttackers == 0)
+            {
+                break;
+            }
+            attacker = null;
+            for (int i = 0; i < PieceType.NUMBER_OF_TYPES && attacker == null; i++)
+            {
+                final long pieces = ownAttackers & bitBoard.getPieceBitBoard(PieceType.getType(i), white);
+                if (pieces != 0)
+                {
+                    attacker = PieceType.getType(i);
+                    occupancy &= ~Long.lowestOneBit(pieces);
+                }
+            }
+            attackers = (attackers | calculateSliderAttackers(bitBoard, destination, occupancy)) & occupancy;
+        }
+        while (--depth > 0)
+        {
+            gains[depth - 1] = -Math.max(-gains[depth - 1], gains[depth]);
+        }
+        return gains[0];
+    }
+
+    /**
+     * calculates pieces of both colours which attack the box
+     *
+     * @param bitBoard pieces placement
+     * @param boxId index of the attacked box
+     * @param occupancy mask of boxes which block sliding pieces
+     * @return mask of attacking pieces
+     */
+
+    private static long calculateAttackers(final BitBoard bitBoard, final int boxId, final long occupancy)
+    {
+        return (AttackTables.getPawnAttacks(boxId, false) & bitBoard.getPieceBitBoard(PieceType.PAWN, true)) |
+                (AttackTables.getPawnAttacks(boxId, true) & bitBoard.getPieceBitBoard(PieceType.PAWN, false)) |
+                (AttackTables.getKnightAttacks(boxId) & (bitBoard.getPieceBitBoard(PieceType.KNIGHT, true) |
+                        bitBoard.getPieceBitBoard(PieceType.KNIGHT, false))) |
+                (AttackTables.getKingAttacks(boxId) & (bitBoard.getPieceBitBoard(PieceType.KING, true) |
+                        bitBoard.getPieceBitBoard(PieceType.KING, false))) |
+                calculateSliderAttackers(bitBoard, boxId, occupancy);
+    }
+
+    /**
+     * calculates sliding pieces of both colours which attack the box, called again after every capture
+     * to find x-ray attackers uncovered by the captured piece
+     *
+     * @param bitBoard pieces placement
+     * @param boxId index of the attacked box
+     * @param occupancy mask of boxes which block sliding pieces
+     * @return mask of attacking bishops, rooks and queens
+     */
+
+    private static long calculateSliderAttackers(final BitBoard bitBoard, final int boxId, final long occupancy)
+    {
+        final long queens = bitBoard.getPieceBitBoard(PieceType.QUEEN, true) | bitBoard.getPieceBitBoard(PieceType.QUEEN, false);
+        final long bishops = bitBoard.getPieceBitBoard(PieceType.BISHOP, true) | bitBoard.getPieceBitBoard(PieceType.BISHOP, false) | queens;
+        final long rooks = bitBoard.getPieceBitBoard(PieceType.ROOK, true) | bitBoard.getPieceBitBoard(PieceType.ROOK, false) | queens;
+        return (BitBoard.bishopAttacks(boxId, occupancy) & bishops) | (BitBoard.rookAttacks(boxId, occupancy) & rooks);
+    }
+}
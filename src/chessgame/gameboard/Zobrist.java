@@ -0,0 +1,193 @@
+package chessgame.gameboard;
+
+import chessgame.ChessUtil;
+import chessgame.gameboard.chesspieces.Pawn;
+import chessgame.gameboard.chesspieces.Piece;
+import chessgame.gameboard.chesspieces.PieceType;
+
+import java.util.Random;
+
+/**
+ * random keys of zobrist hashing. Key of the board is xor of keys of all pieces on their boxes, key of the turn,
+ * key of castling rights and key of en passant column, so it can be updated by xor of changed elements only.
+ */
+
+public final class Zobrist
+{
+    public static final int WHITE_KING_SIDE_CASTLE = 1;
+    public static final int WHITE_QUEEN_SIDE_CASTLE = 2;
+    public static final int BLACK_KING_SIDE_CASTLE = 4;
+    public static final int BLACK_QUEEN_SIDE_CASTLE = 8;
+
+    private static final long SEED = 0x5DEECE66DL;
+    private static final long[][] PIECE_KEYS = new long[2 * PieceType.NUMBER_OF_TYPES][ChessUtil.GAME_BOARD_SIZE];
+    private static final long[] CASTLING_KEYS = new long[16];
+    private static final long[] EN_PASSANT_KEYS = new long[ChessUtil.NUMBER_OF_COLUMNS];
+    private static final long BLACK_TURN_KEY;
+    private static final int[] CASTLING_RIGHTS_MASKS = new int[ChessUtil.GAME_BOARD_SIZE];
+
+    static
+    {
+        final Random random = new Random(SEED);
+        for (long[] keys : PIECE_KEYS)
+        {
+            for (int i = 0; i < keys.length; i++)
+            {
+                keys[i] = random.nextLong();
+            }
+        }
+        for (int i = 1; i < CASTLING_KEYS.length; i++)
+        {
+            CASTLING_KEYS[i] = random.nextLong();
+        }
+        for (int i = 0; i < EN_PASSANT_KEYS.length; i++)
+        {
+            EN_PASSANT_KEYS[i] = random.nextLong();
+        }
+        BLACK_TURN_KEY = random.nextLong();
+
+        for (int i = 0; i < ChessUtil.GAME_BOARD_SIZE; i++)
+        {
+            CASTLING_RIGHTS_MASKS[i] = 15;
+        }
+        CASTLING_RIGHTS_MASKS[60] &= ~(WHITE_KING_SIDE_CASTLE | WHITE_QUEEN_SIDE_CASTLE);
+        CASTLING_RIGHTS_MASKS[63] &= ~WHITE_KING_SIDE_CASTLE;
+        CASTLING_RIGHTS_MASKS[56] &= ~WHITE_QUEEN_SIDE_CASTLE;
+        CASTLING_RIGHTS_MASKS[4] &= ~(BLACK_KING_SIDE_CASTLE | BLACK_QUEEN_SIDE_CASTLE);
+        CASTLING_RIGHTS_MASKS[7] &= ~BLACK_KING_SIDE_CASTLE;
+        CASTLING_RIGHTS_MASKS[0] &= ~BLACK_QUEEN_SIDE_CASTLE;
+    }
+
+    private Zobrist()
+    {
+        throw new RuntimeException("not instantionable");
+    }
+
+    /**
+     * calculates key of the board from scratch
+     *
+     * @param bitBoard pieces placement
+     * @param isWhiteTurn defines move maker
+     * @param enPassantPawn pawn that was moved by two boxes in the previous round, can be {@code null}
+     * @return zobrist key of the board
+     */
+
+    public static long calculateKey(final BitBoard bitBoard, final boolean isWhiteTurn, final Pawn enPassantPawn)
+    {
+        long key = 0L;
+        for (int i = 0; i < 2 * PieceType.NUMBER_OF_TYPES; i++)
+        {
+            final PieceType pieceType = PieceType.getType(i % PieceType.NUMBER_OF_TYPES);
+            for (long pieces = bitBoard.getPieceBitBoard(pieceType, i < PieceType.NUMBER_OF_TYPES); pieces != 0; pieces &= pieces - 1)
+            {
+                key ^= PIECE_KEYS[i][Long.numberOfTrailingZeros(pieces)];
+            }
+        }
+        if (!isWhiteTurn)
+        {
+            key ^= BLACK_TURN_KEY;
+        }
+        return key ^ CASTLING_KEYS[getCastlingRights(bitBoard)] ^ getEnPassantKey(enPassantPawn);
+    }
+
+    /**
+     * getter of key of the piece on its position
+     *
+     * @param piece chess piece
+     * @return key of the piece
+     */
+
+    public static long getPieceKey(final Piece piece)
+    {
+        return getPieceKey(piece.getPieceType(), piece.isWhite(), piece.getPosition());
+    }
+
+    /**
+     * getter of key of the piece with given type and colour on given position
+     *
+     * @param pieceType type of the piece
+     * @param white colour of the piece
+     * @param position index of the box on the game board
+     * @return key of the piece
+     */
+
+    public static long getPieceKey(final PieceType pieceType, final boolean white, final int position)
+    {
+        return PIECE_KEYS[white ? pieceType.ordinal() : pieceType.ordinal() + PieceType.NUMBER_OF_TYPES][position];
+    }
+
+    /**
+     * getter of key which is xored when black player is making move
+     *
+     * @return key of the turn
+     */
+
+    public static long getBlackTurnKey()
+    {
+        return BLACK_TURN_KEY;
+    }
+
+    /**
+     * getter of key of castling rights
+     *
+     * @param castlingRights castling rights as sum of castle flags
+     * @return key of castling rights
+     */
+
+    public static long getCastlingKey(final int castlingRights)
+    {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    /**
+     * getter of key of en passant column
+     *
+     * @param enPassantPawn pawn that was moved by two boxes in the previous round, can be {@code null}
+     * @return key of the column of the pawn; {@code 0} if there is no such pawn
+     */
+
+    public static long getEnPassantKey(final Pawn enPassantPawn)
+    {
+        return enPassantPawn == null ? 0L : EN_PASSANT_KEYS[enPassantPawn.getPosition() % ChessUtil.NUMBER_OF_COLUMNS];
+    }
+
+    /**
+     * calculates castling rights from unmoved kings and rooks standing on their starting boxes
+     *
+     * @param bitBoard pieces placement
+     * @return castling rights as sum of castle flags
+     */
+
+    public static int getCastlingRights(final BitBoard bitBoard)
+    {
+        final long unmoved = bitBoard.getUnmovedPieces();
+        final long whiteRooks = bitBoard.getPieceBitBoard(PieceType.ROOK, true) & unmoved;
+        final long blackRooks = bitBoard.getPieceBitBoard(PieceType.ROOK, false) & unmoved;
+        int castlingRights = 0;
+        if ((bitBoard.getPieceBitBoard(PieceType.KING, true) & unmoved & (1L << 60)) != 0)
+        {
+            castlingRights |= (whiteRooks & (1L << 63)) != 0 ? WHITE_KING_SIDE_CASTLE : 0;
+            castlingRights |= (whiteRooks & (1L << 56)) != 0 ? WHITE_QUEEN_SIDE_CASTLE : 0;
+        }
+        if ((bitBoard.getPieceBitBoard(PieceType.KING, false) & unmoved & (1L << 4)) != 0)
+        {
+            castlingRights |= (blackRooks & (1L << 7)) != 0 ? BLACK_KING_SIDE_CASTLE : 0;
+            castlingRights |= (blackRooks & 1L) != 0 ? BLACK_QUEEN_SIDE_CASTLE : 0;
+        }
+        return castlingRights;
+    }
+
+    /**
+     * calculates castling rights after move, right is lost when king or rook leaves its box or rook is captured
+     *
+     * @param castlingRights castling rights before the move
+     * @param position index of the box where the move starts
+     * @param destination index of the box where the move ends
+     * @return castling rights after the move
+     */
+
+    public static int updateCastlingRights(final int castlingRights, final int position, final int destination)
+    {
+        return castlingRights & CASTLING_RIGHTS_MASKS[position] & CASTLING_RIGHTS_MASKS[destination];
+    }
+}
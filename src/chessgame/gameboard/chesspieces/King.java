@@ -1,7 +1,6 @@
 package chessgame.gameboard.chesspieces;
 
 import chessgame.gameboard.*;
-import chessgame.ChessUtil;
 import chessgame.gameboard.move.Move;
 import chessgame.gameboard.move.Move.AttackMove;
 import chessgame.gameboard.move.Move.NormalMove;
@@ -23,48 +22,47 @@ public class King extends Piece
     }
 
     /**
-     * method that creates new King piece at new destination
+     * method that gets King piece at new destination from the shared pieces
      *
      * @param move contains information about the move that will be done
-     * @return new King piece
+     * @return King piece standing on the destination
      */
 
     @Override
     public King movePiece(Move move)
     {
-        return new King(move.getDestination(), move.getMovedPiece().isWhite(), false);
+        return (King) PieceType.KING.getPiece(move.getDestination(), move.getMovedPiece().isWhite(), false);
     }
 
     /**
-     * calculate all moves that this piece can do
+     * calculate moves that this piece can do to the target boxes
      *
      * @param board contains actual state of the game board e.g. positions of all pieces
+     * @param targets mask of allowed destinations
      * @return list of available moves for this piece
      */
 
     @Override
-    public List<Move> logic(Board board)
+    public List<Move> logic(Board board, long targets)
     {
         final List<Move> legalMoves = new ArrayList<>();
-        for (int possibleMoveVector : ChessUtil.KING_POSSIBLE_MOVES_VECTOR)
+        for (int possibleDestination : AttackTables.getKingDestinations(this.position))
         {
-            int possibleDestination = this.position + possibleMoveVector;
-            if (isFirstColumnPosition(this.position, possibleMoveVector) || isEighthColumnPosition(this.position, possibleMoveVector))
+            if ((targets & (1L << possibleDestination)) == 0)
+            {
                 continue;
-            if (ChessUtil.borderCheck(possibleDestination))
+            }
+            final BoardBox boardBox = board.getBox(possibleDestination);
+            if (!boardBox.isBoxOccupied())
             {
-                final BoardBox boardBox = board.getBox(possibleDestination);
-                if (!boardBox.isBoxOccupied())
-                {
-                    legalMoves.add(new NormalMove(board, this, possibleDestination));
-                }
-                else
+                legalMoves.add(new NormalMove(board, this, possibleDestination));
+            }
+            else
+            {
+                final Piece pieceAtDestination = boardBox.getPiece();
+                if (this.whitePiece != pieceAtDestination.isWhite())
                 {
-                    final Piece pieceAtDestination = boardBox.getPiece();
-                    if (this.whitePiece != pieceAtDestination.isWhite())
-                    {
-                        legalMoves.add(new AttackMove(board, this, possibleDestination, pieceAtDestination));
-                    }
+                    legalMoves.add(new AttackMove(board, this, possibleDestination, pieceAtDestination));
                 }
             }
         }
@@ -96,25 +94,15 @@ public class King extends Piece
     }
 
     /**
-     * checks if next move won't end up out of the board
-     *
-     * @return {@code true} if this is first column and is moving out of the board; {@code false} otherwise
-     */
-
-    private boolean isFirstColumnPosition(int position, int possibleMove)
-    {
-        return ChessUtil.isItFirstColumn(position) && (possibleMove == -9 || possibleMove == -1 || possibleMove == 7);
-    }
-
-    /**
-     * checks if next move won't end up out of the board
+     * getter of type of the piece
      *
-     * @return {@code true} if this is eighth column and is moving out of the board; {@code false} otherwise
+     * @return {@code PieceType.KING}
      */
 
-    private boolean isEighthColumnPosition(int position, int possibleMove)
+    @Override
+    public PieceType getPieceType()
     {
-        return ChessUtil.isItEighthColumn(position) && (possibleMove == -7 || possibleMove == 1 || possibleMove == 9);
+        return PieceType.KING;
     }
 
     /**
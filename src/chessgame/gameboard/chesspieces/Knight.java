@@ -1,7 +1,6 @@
 package chessgame.gameboard.chesspieces;
 
 import chessgame.gameboard.*;
-import chessgame.ChessUtil;
 import chessgame.gameboard.move.Move;
 import chessgame.gameboard.move.Move.AttackMove;
 import chessgame.gameboard.move.Move.NormalMove;
@@ -23,53 +22,47 @@ public class Knight extends Piece
     }
 
     /**
-     * method that creates new Knight piece at new destination
+     * method that gets Knight piece at new destination from the shared pieces
      *
      * @param move contains information about the move that will be done
-     * @return new Knight piece
+     * @return Knight piece standing on the destination
      */
 
     @Override
     public Knight movePiece(Move move)
     {
-        return new Knight(move.getDestination(), move.getMovedPiece().isWhite(), false);
+        return (Knight) PieceType.KNIGHT.getPiece(move.getDestination(), move.getMovedPiece().isWhite(), false);
     }
 
     /**
-     * calculate all moves that this piece can do
+     * calculate moves that this piece can do to the target boxes
      *
      * @param board contains actual state of the game board e.g. positions of all pieces
+     * @param targets mask of allowed destinations
      * @return list of available moves for this piece
      */
 
     @Override
-    public List<Move> logic(Board board)
+    public List<Move> logic(Board board, long targets)
     {
         final List<Move> legalMoves = new ArrayList<>();
-        dupa:
-        for (int possibleMove : ChessUtil.KNIGHT_POSSIBLE_MOVES)
+        for (int possibleDestination : AttackTables.getKnightDestinations(this.position))
         {
-            int possibleDestination = this.position + possibleMove;
-            if (ChessUtil.borderCheck(possibleDestination))
+            if ((targets & (1L << possibleDestination)) == 0)
             {
-                if (isFirstColumnPosition(this.position, possibleMove) ||
-                        isSecondColumnPosition(this.position, possibleMove) ||
-                        isSeventhColumnPosition(this.position, possibleMove) ||
-                        isEighthColumnPosition(this.position, possibleMove))
-                    continue;
-
-                final BoardBox boardBox = board.getBox(possibleDestination);
-                if (!boardBox.isBoxOccupied())
-                {
-                    legalMoves.add(new NormalMove(board, this, possibleDestination));
-                }
-                else
+                continue;
+            }
+            final BoardBox boardBox = board.getBox(possibleDestination);
+            if (!boardBox.isBoxOccupied())
+            {
+                legalMoves.add(new NormalMove(board, this, possibleDestination));
+            }
+            else
+            {
+                final Piece pieceAtDestination = boardBox.getPiece();
+                if (this.whitePiece != pieceAtDestination.isWhite())
                 {
-                    final Piece pieceAtDestination = boardBox.getPiece();
-                    if (this.whitePiece != pieceAtDestination.isWhite())
-                    {
-                        legalMoves.add(new AttackMove(board, this, possibleDestination, pieceAtDestination));
-                    }
+                    legalMoves.add(new AttackMove(board, this, possibleDestination, pieceAtDestination));
                 }
             }
         }
@@ -101,47 +94,15 @@ public class Knight extends Piece
     }
 
     /**
-     * checks if next move won't end up out of the board
-     *
-     * @return {@code true} if this is first column and is moving out of the board; {@code false} otherwise
-     */
-
-    private boolean isFirstColumnPosition(int position, int possibleMove)
-    {
-        return ChessUtil.isItFirstColumn(position) && (possibleMove == -10 || possibleMove == -17 || possibleMove == 6 || possibleMove == 15);
-    }
-
-    /**
-     * checks if next move won't end up out of the board
-     *
-     * @return {@code true} if this is second column and is moving out of the board; {@code false} otherwise
-     */
-
-    private boolean isSecondColumnPosition(int position, int possibleMove)
-    {
-        return ChessUtil.isItSecondColumn(position) && (possibleMove == -10 || possibleMove == 6);
-    }
-
-    /**
-     * checks if next move won't end up out of the board
-     *
-     * @return {@code true} if this is seventh column and is moving out of the board; {@code false} otherwise
-     */
-
-    private boolean isSeventhColumnPosition(int position, int possibleMove)
-    {
-        return ChessUtil.isItSeventhColumn(position) && (possibleMove == -6 || possibleMove == 10);
-    }
-
-    /**
-     * checks if next move won't end up out of the board
+     * getter of type of the piece
      *
-     * @return {@code true} if this is eighth column and is moving out of the board; {@code false} otherwise
+     * @return {@code PieceType.KNIGHT}
      */
 
-    private boolean isEighthColumnPosition(int position, int possibleMove)
+    @Override
+    public PieceType getPieceType()
     {
-        return ChessUtil.isItEighthColumn(position) && (possibleMove == 10 || possibleMove == 17 || possibleMove == -6 || possibleMove == -15);
+        return PieceType.KNIGHT;
     }
 
     /**
@@ -1,5 +1,6 @@
 package chessgame.gameboard.chesspieces;
 
+import chessgame.gameboard.AttackTables;
 import chessgame.gameboard.Board;
 import chessgame.gameboard.move.Move;
 import chessgame.ChessUtil;
@@ -27,73 +28,56 @@ public class Pawn extends Piece
     }
 
     /**
-     * method that creates new Pawn piece at new destination
+     * method that gets Pawn piece at new destination from the shared pieces
      *
      * @param move contains information about the move that will be done
-     * @return new Pawn piece
+     * @return Pawn piece standing on the destination
      */
 
     @Override
     public Pawn movePiece(Move move)
     {
-        return new Pawn(move.getDestination(), move.getMovedPiece().isWhite(), false);
+        return (Pawn) PieceType.PAWN.getPiece(move.getDestination(), move.getMovedPiece().isWhite(), false);
     }
 
     /**
-     * calculate all moves that this piece can do
+     * calculate moves that this piece can do to the target boxes
      *
      * @param board contains actual state of the game board e.g. positions of all pieces
+     * @param targets mask of allowed destinations
      * @return list of available moves for this piece
      */
 
     @Override
-    public List<Move> logic(Board board)
+    public List<Move> logic(Board board, long targets)
     {
         final List<Move> legalMoves = new ArrayList<>();
 
-        for (int possibleMoveVector : ChessUtil.PAWN_POSSIBLE_MOVES_VECTOR)
+        final int possibleDestination = this.position + 8 * direction;
+        if (ChessUtil.borderCheck(possibleDestination) && !board.getBox(possibleDestination).isBoxOccupied())
         {
-            int possibleDestination = this.position + possibleMoveVector * direction;
-            if (!ChessUtil.borderCheck(possibleDestination))
-                continue;
-            if (possibleMoveVector == 8 && !board.getBox(possibleDestination).isBoxOccupied())
+            if ((targets & (1L << possibleDestination)) != 0)
             {
                 legalMoves.add(new PawnMove(board, this, possibleDestination));
             }
-            else if(possibleMoveVector == 16 && isFirstMove() &&
+            final int jumpDestination = possibleDestination + 8 * direction;
+            if (isFirstMove() &&
                     ((ChessUtil.isItSecondRow(position) && !isWhite()) ||
-                    (ChessUtil.isItSeventhRow(position) && isWhite())))
+                    (ChessUtil.isItSeventhRow(position) && isWhite())) &&
+                    (targets & (1L << jumpDestination)) != 0 &&
+                    !board.getBox(jumpDestination).isBoxOccupied())
             {
-                final int behindPossibleDestination = this.position + (8 * direction);
-                if (!board.getBox(behindPossibleDestination).isBoxOccupied() && !board.getBox(possibleDestination).isBoxOccupied())
-                {
-                    legalMoves.add(new PawnJump(board, this, possibleDestination));
-                }
-            }
-            else if (possibleMoveVector == 7 &&
-                    !((ChessUtil.isItEighthColumn(position) && isWhite()) ||
-                      (ChessUtil.isItFirstColumn(position) && !isWhite())))
-            {
-                if (board.getBox(possibleDestination).isBoxOccupied())
-                {
-                    final Piece pieceAtDestination = board.getBox(possibleDestination).getPiece();
-                    if (this.isWhite() != pieceAtDestination.isWhite())
-                    {
-                        legalMoves.add(new PawnAttackMove(board,this,possibleDestination,pieceAtDestination));
-                    }
-                }
+                legalMoves.add(new PawnJump(board, this, jumpDestination));
             }
-            else if (possibleMoveVector == 9 &&
-                    !((ChessUtil.isItFirstColumn(position) && isWhite()) ||
-                      (ChessUtil.isItEighthColumn(position) && !isWhite())))
+        }
+        for (int attackDestination : AttackTables.getPawnAttackDestinations(this.position, isWhite()))
+        {
+            if ((targets & (1L << attackDestination)) != 0 && board.getBox(attackDestination).isBoxOccupied())
             {
-                if (board.getBox(possibleDestination).isBoxOccupied())
+                final Piece pieceAtDestination = board.getBox(attackDestination).getPiece();
+                if (this.isWhite() != pieceAtDestination.isWhite())
                 {
-                    final Piece pieceAtDestination = board.getBox(possibleDestination).getPiece();
-                    if (this.isWhite() != pieceAtDestination.isWhite())
-                    {
-                        legalMoves.add(new PawnAttackMove(board,this,possibleDestination,pieceAtDestination));
-                    }
+                    legalMoves.add(new PawnAttackMove(board,this,attackDestination,pieceAtDestination));
                 }
             }
         }
@@ -124,6 +108,18 @@ public class Pawn extends Piece
         return false;
     }
 
+    /**
+     * getter of type of the piece
+     *
+     * @return {@code PieceType.PAWN}
+     */
+
+    @Override
+    public PieceType getPieceType()
+    {
+        return PieceType.PAWN;
+    }
+
     /**
      * Overridden Object class toString method, converts object of this class to sing of pawn
      *
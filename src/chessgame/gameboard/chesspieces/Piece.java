@@ -1,8 +1,13 @@
 package chessgame.gameboard.chesspieces;
 
+import chessgame.gameboard.BitBoard;
 import chessgame.gameboard.Board;
 import chessgame.gameboard.move.Move;
+import chessgame.gameboard.move.Move.AttackMove;
+import chessgame.gameboard.move.Move.NormalMove;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -15,6 +20,8 @@ public abstract class Piece
     protected final boolean whitePiece;
     protected final boolean isFirstMove;
 
+    public static final long ALL_BOXES = -1L;
+
     public Piece(final int position, final boolean whitePiece, final boolean isFirstMove)
     {
         this.position = position;
@@ -42,7 +49,19 @@ public abstract class Piece
         }
         final Piece otherPiece = (Piece) others;
         return this.isWhite() == otherPiece.isWhite() && this.getPosition() == otherPiece.getPosition() &&
-                this.toString() == otherPiece.toString();
+                this.getPieceType() == otherPiece.getPieceType();
+    }
+
+    /**
+     * overridden object class hashCode method, consistent with equals method
+     *
+     * @return hash code of the piece
+     */
+
+    @Override
+    public int hashCode()
+    {
+        return (this.getPieceType().ordinal() * 2 + (this.isWhite() ? 1 : 0)) * 64 + this.getPosition();
     }
 
     /**
@@ -94,7 +113,62 @@ public abstract class Piece
      * @return list of available moves for this piece
      */
 
-    public abstract List<Move> logic(Board board);
+    public List<Move> logic(final Board board)
+    {
+        return logic(board, ALL_BOXES);
+    }
+
+    /**
+     * calculate moves that capture enemy pieces, quiet moves aren't created at all
+     *
+     * @param board contains actual state of the game board e.g. positions of all pieces
+     * @return list of available attack moves for this piece
+     */
+
+    public List<Move> captureLogic(final Board board)
+    {
+        return logic(board, board.getBitBoard().getOccupancy(!this.whitePiece));
+    }
+
+    /**
+     * calculate moves of this piece which end on one of the target boxes, used to generate only captures
+     * or only moves which can stop a check
+     *
+     * @param board contains actual state of the game board e.g. positions of all pieces
+     * @param targets mask of allowed destinations
+     * @return list of available moves for this piece ending on the target boxes
+     */
+
+    public abstract List<Move> logic(Board board, long targets);
+
+    /**
+     * creates moves of this piece to the boxes of the mask, boxes occupied by enemy pieces become attack moves
+     *
+     * @param board contains actual state of the game board e.g. positions of all pieces
+     * @param attacks mask of boxes attacked by this piece
+     * @return unmodifiable list of moves to attacked boxes that aren't occupied by own pieces
+     */
+
+    protected List<Move> createMoves(final Board board, final long attacks)
+    {
+        final BitBoard bitBoard = board.getBitBoard();
+        final long enemyPieces = bitBoard.getOccupancy(!this.whitePiece);
+        final long destinations = attacks & ~bitBoard.getOccupancy(this.whitePiece);
+        final List<Move> moves = new ArrayList<>(Long.bitCount(destinations));
+        for (long boxes = destinations; boxes != 0; boxes &= boxes - 1)
+        {
+            final int destination = Long.numberOfTrailingZeros(boxes);
+            if ((enemyPieces & (1L << destination)) != 0)
+            {
+                moves.add(new AttackMove(board, this, destination, bitBoard.getPiece(destination)));
+            }
+            else
+            {
+                moves.add(new NormalMove(board, this, destination));
+            }
+        }
+        return Collections.unmodifiableList(moves);
+    }
 
     /**
      * checks if this piece is a king
@@ -111,4 +185,12 @@ public abstract class Piece
      */
 
     public abstract boolean isRook();
+
+    /**
+     * getter of type of the piece
+     *
+     * @return type of this piece
+     */
+
+    public abstract PieceType getPieceType();
 }
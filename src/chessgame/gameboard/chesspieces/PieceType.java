@@ -0,0 +1,147 @@
+package chessgame.gameboard.chesspieces;
+
+import chessgame.ChessUtil;
+
+/**
+ * enum which represents type of the chess piece, it is used to index bit boards and to get pieces of given type.
+ * Pieces are immutable, so every combination of type, colour, position and first move is created once and shared.
+ */
+
+public enum PieceType
+{
+    PAWN("P", 100),
+    KNIGHT("N", 320),
+    BISHOP("B", 330),
+    ROOK("R", 500),
+    QUEEN("Q", 900),
+    KING("K", 20000);
+
+    public static final int NUMBER_OF_TYPES = 6;
+    private static final PieceType[] TYPES = values();
+    private static final Piece[] PIECES = createAllPieces();
+
+    private final String sign;
+    private final int value;
+
+    PieceType(final String sign, final int value)
+    {
+        this.sign = sign;
+        this.value = value;
+    }
+
+    /**
+     * getter of piece type with given index
+     *
+     * @param index ordinal number of the piece type
+     * @return piece type with given index
+     */
+
+    public static PieceType getType(final int index)
+    {
+        return TYPES[index];
+    }
+
+    /**
+     * getter of sign of the piece type, the same sign is returned by toString method of the piece
+     *
+     * @return String which contains sign of the piece type
+     */
+
+    public String getSign()
+    {
+        return this.sign;
+    }
+
+    /**
+     * getter of material value of the piece type in centipawns, king is worth more than all other pieces together
+     *
+     * @return value of the piece type
+     */
+
+    public int getValue()
+    {
+        return this.value;
+    }
+
+    /**
+     * getter of shared piece of this type, pieces are created once when the enum is loaded
+     *
+     * @param position index of box on the board
+     * @param whitePiece defines if piece is white
+     * @param isFirstMove defines if piece hasn't moved yet
+     * @return piece of this type with given parameters
+     */
+
+    public Piece getPiece(final int position, final boolean whitePiece, final boolean isFirstMove)
+    {
+        return PIECES[cacheIndex(ordinal(), position, whitePiece, isFirstMove)];
+    }
+
+    /**
+     * creates new piece of this type, {@link #getPiece} should be used instead of it
+     *
+     * @param position index of box on the board
+     * @param whitePiece defines if created piece is white
+     * @param isFirstMove defines if created piece hasn't moved yet
+     * @return new piece of this type
+     */
+
+    public Piece createPiece(final int position, final boolean whitePiece, final boolean isFirstMove)
+    {
+        switch (this)
+        {
+            case PAWN:
+                return new Pawn(position, whitePiece, isFirstMove);
+            case KNIGHT:
+                return new Knight(position, whitePiece, isFirstMove);
+            case BISHOP:
+                return new Bishop(position, whitePiece, isFirstMove);
+            case ROOK:
+                return new Rook(position, whitePiece, isFirstMove);
+            case QUEEN:
+                return new Queen(position, whitePiece, isFirstMove);
+            default:
+                return new King(position, whitePiece, isFirstMove);
+        }
+    }
+
+    /**
+     * creates pieces of all types, colours, positions and first move states
+     *
+     * @return array of pieces indexed by cacheIndex
+     */
+
+    private static Piece[] createAllPieces()
+    {
+        final Piece[] pieces = new Piece[NUMBER_OF_TYPES * 2 * ChessUtil.GAME_BOARD_SIZE * 2];
+        for (PieceType pieceType : TYPES)
+        {
+            for (int position = 0; position < ChessUtil.GAME_BOARD_SIZE; position++)
+            {
+                for (int i = 0; i < 4; i++)
+                {
+                    final boolean whitePiece = (i & 1) != 0;
+                    final boolean isFirstMove = (i & 2) != 0;
+                    pieces[cacheIndex(pieceType.ordinal(), position, whitePiece, isFirstMove)] =
+                            pieceType.createPiece(position, whitePiece, isFirstMove);
+                }
+            }
+        }
+        return pieces;
+    }
+
+    /**
+     * calculates index of the piece in the cache
+     *
+     * @param type ordinal number of the piece type
+     * @param position index of box on the board
+     * @param whitePiece defines if piece is white
+     * @param isFirstMove defines if piece hasn't moved yet
+     * @return index in the array of pieces
+     */
+
+    private static int cacheIndex(final int type, final int position, final boolean whitePiece, final boolean isFirstMove)
+    {
+        return ((type * 2 + (whitePiece ? 1 : 0)) * ChessUtil.GAME_BOARD_SIZE + position) * 2 + (isFirstMove ? 1 : 0);
+    }
+}
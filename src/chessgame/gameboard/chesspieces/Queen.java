@@ -1,12 +1,9 @@
 package chessgame.gameboard.chesspieces;
 
-import chessgame.gameboard.*;
-import chessgame.ChessUtil;
+import chessgame.gameboard.BitBoard;
+import chessgame.gameboard.Board;
 import chessgame.gameboard.move.Move;
-import chessgame.gameboard.move.Move.AttackMove;
-import chessgame.gameboard.move.Move.NormalMove;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -23,60 +20,30 @@ public class Queen extends Piece
     }
 
     /**
-     * method that creates new Queen piece at new destination
+     * method that gets Queen piece at new destination from the shared pieces
      *
      * @param move contains information about the move that will be done
-     * @return new Queen piece
+     * @return Queen piece standing on the destination
      */
 
     @Override
     public Queen movePiece(Move move)
     {
-        return new Queen(move.getDestination(), move.getMovedPiece().isWhite(), false);
+        return (Queen) PieceType.QUEEN.getPiece(move.getDestination(), move.getMovedPiece().isWhite(), false);
     }
 
     /**
-     * calculate all moves that this piece can do
+     * calculate moves that this piece can do to the target boxes
      *
      * @param board contains actual state of the game board e.g. positions of all pieces
+     * @param targets mask of allowed destinations
      * @return list of available moves for this piece
      */
 
     @Override
-    public List<Move> logic(Board board)
+    public List<Move> logic(Board board, long targets)
     {
-        final List<Move> legalMoves = new ArrayList<>();
-
-        for (int possibleMoveVector : ChessUtil.QUEEN_POSSIBLE_MOVES_VECTOR)
-        {
-            int possibleDestination = this.position;
-            while (ChessUtil.borderCheck(possibleDestination))
-            {
-                if (isFirstColumnPosition(possibleDestination, possibleMoveVector) ||
-                        isEighthColumnPosition(possibleDestination, possibleMoveVector))
-                    break;
-
-                possibleDestination += possibleMoveVector;
-                if (ChessUtil.borderCheck(possibleDestination))
-                {
-                    final BoardBox boardBox = board.getBox(possibleDestination);
-                    if (!boardBox.isBoxOccupied())
-                    {
-                        legalMoves.add(new NormalMove(board, this, possibleDestination));
-                    }
-                    else
-                    {
-                        final Piece pieceAtDestination = boardBox.getPiece();
-                        if (this.whitePiece != pieceAtDestination.isWhite())
-                        {
-                            legalMoves.add(new AttackMove(board, this, possibleDestination, pieceAtDestination));
-                        }
-                        break;
-                    }
-                }
-            }
-        }
-        return legalMoves;
+        return createMoves(board, BitBoard.queenAttacks(this.position, board.getBitBoard().getOccupancy()) & targets);
     }
 
     /**
@@ -104,25 +71,15 @@ public class Queen extends Piece
     }
 
     /**
-     * checks if next move won't end up out of the board
+     * getter of type of the piece
      *
-     * @return {@code true} if this is first column and is moving out of the board; {@code false} otherwise
+     * @return {@code PieceType.QUEEN}
      */
 
-    private boolean isFirstColumnPosition(int position, int possibleMoveVector)
-    {
-        return ChessUtil.isItFirstColumn(position) && (possibleMoveVector == -1 || possibleMoveVector == -9 || possibleMoveVector == 7);
-    }
-
-    /**
-     * checks if next move won't end up out of the board
-     *
-     * @return {@code true} if this is eighth column and is moving out of the board; {@code false} otherwise
-     */
-
-    private boolean isEighthColumnPosition(int position, int possibleMoveVector)
+    @Override
+    public PieceType getPieceType()
     {
-        return ChessUtil.isItEighthColumn(position) && (possibleMoveVector == 1 || possibleMoveVector == -7 || possibleMoveVector == 9);
+        return PieceType.QUEEN;
     }
 
     /**
@@ -4,6 +4,9 @@ import chessgame.gameboard.Board.Builder;
 import chessgame.gameboard.chesspieces.Pawn;
 import chessgame.gameboard.chesspieces.Piece;
 import chessgame.gameboard.Board;
+import chessgame.gameboard.PieceSquareTables;
+import chessgame.gameboard.Zobrist;
+import chessgame.gameboard.chesspieces.PieceType;
 import chessgame.gameboard.chesspieces.Rook;
 
 /**
@@ -87,6 +90,19 @@ public abstract class Move
         return movedPiece;
     }
 
+    /**
+     * Overridden Object class toString method, converts move to long algebraic notation which doesn't depend
+     * on the board, standard algebraic notation is written by {@link MoveNotation#encodeSan}
+     *
+     * @return String which contains starting box and destination of the move e.g. g1f3
+     */
+
+    @Override
+    public String toString()
+    {
+        return MoveNotation.encodeLongAlgebraic(this);
+    }
+
     /**
      * template metod, to check if this is attack move or not, for all classes that extends this class
      *
@@ -139,14 +155,80 @@ public abstract class Move
         }
         for (Piece piece : this.board.getCurrentPlayer().getOpponent().getAlivePieces())
         {
-            builder.setPiece(piece);
+            if (!piece.equals(this.getAttackedPiece()))
+            {
+                builder.setPiece(piece);
+            }
         }
         // move the piece
-        builder.setPiece(this.movedPiece.movePiece(this));
+        final Piece piece = this.movedPiece.movePiece(this);
+        builder.setPiece(piece);
         builder.setPlayerTurn(this.board.getCurrentPlayer().getOpponent().isWhitePlayer());
+        builder.setZobristKey(calculateNextZobristKey(piece, null));
+        setNextPieceSquareScores(builder, piece);
         return builder.build();
     }
 
+    /**
+     * calculates zobrist key of the board after this move by updating key of the current board
+     * with moved, captured and castled pieces, turn, castling rights and en passant column
+     *
+     * @param movedPieceAfterMove moved piece standing on the destination
+     * @param enPassantPawn pawn that can be captured en passant after this move, can be {@code null}
+     * @return zobrist key of the next board
+     */
+
+    long calculateNextZobristKey(final Piece movedPieceAfterMove, final Pawn enPassantPawn)
+    {
+        long key = this.board.getZobristKey() ^ Zobrist.getBlackTurnKey() ^
+                Zobrist.getPieceKey(this.movedPiece) ^ Zobrist.getPieceKey(movedPieceAfterMove);
+        if (isAttackMove())
+        {
+            key ^= Zobrist.getPieceKey(getAttackedPiece());
+        }
+        if (isCastlingMove())
+        {
+            final CastleMove castleMove = (CastleMove) this;
+            key ^= Zobrist.getPieceKey(castleMove.getCastleRook()) ^
+                    Zobrist.getPieceKey(PieceType.ROOK, this.movedPiece.isWhite(), castleMove.getCastleRookDestination());
+        }
+        final int castlingRights = Zobrist.getCastlingRights(this.board.getBitBoard());
+        key ^= Zobrist.getCastlingKey(castlingRights) ^
+                Zobrist.getCastlingKey(Zobrist.updateCastlingRights(castlingRights, getPosition(), this.destination));
+        return key ^ Zobrist.getEnPassantKey(this.board.getEnPassantPawn()) ^ Zobrist.getEnPassantKey(enPassantPawn);
+    }
+
+    /**
+     * sets material and placement scores of the board after this move by updating scores of the current board
+     * with moved, captured and castled pieces
+     *
+     * @param builder builder of the next board
+     * @param movedPieceAfterMove moved piece standing on the destination
+     */
+
+    void setNextPieceSquareScores(final Builder builder, final Piece movedPieceAfterMove)
+    {
+        int middleGameScore = this.board.getMiddleGameScore() - PieceSquareTables.getMiddleGameScore(this.movedPiece) +
+                PieceSquareTables.getMiddleGameScore(movedPieceAfterMove);
+        int endGameScore = this.board.getEndGameScore() - PieceSquareTables.getEndGameScore(this.movedPiece) +
+                PieceSquareTables.getEndGameScore(movedPieceAfterMove);
+        if (isAttackMove())
+        {
+            middleGameScore -= PieceSquareTables.getMiddleGameScore(getAttackedPiece());
+            endGameScore -= PieceSquareTables.getEndGameScore(getAttackedPiece());
+        }
+        if (isCastlingMove())
+        {
+            final CastleMove castleMove = (CastleMove) this;
+            final boolean white = this.movedPiece.isWhite();
+            middleGameScore += PieceSquareTables.getMiddleGameScore(PieceType.ROOK, white, castleMove.getCastleRookDestination()) -
+                    PieceSquareTables.getMiddleGameScore(castleMove.getCastleRook());
+            endGameScore += PieceSquareTables.getEndGameScore(PieceType.ROOK, white, castleMove.getCastleRookDestination()) -
+                    PieceSquareTables.getEndGameScore(castleMove.getCastleRook());
+        }
+        builder.setPieceSquareScores(middleGameScore, endGameScore);
+    }
+
     /**
      * NormalMove class which extends Move. Represents normal move e.g. move of knight which is not attacking is a normal move.
      */
@@ -295,6 +377,8 @@ public abstract class Move
             builder.setPiece(movedPawn);
             builder.setEnPassant(movedPawn);
             builder.setPlayerTurn(this.board.getCurrentPlayer().getOpponent().isWhitePlayer());
+            builder.setZobristKey(calculateNextZobristKey(movedPawn, movedPawn));
+            setNextPieceSquareScores(builder, movedPawn);
             return builder.build();
         }
     }
@@ -329,6 +413,28 @@ public abstract class Move
             return castleRook;
         }
 
+        /**
+         * getter of position of the castled rook before the move
+         *
+         * @return index of the box where the rook stands
+         */
+
+        public int getCastleRookPosition()
+        {
+            return this.castleRookPosition;
+        }
+
+        /**
+         * getter of position of the castled rook after the move
+         *
+         * @return index of the box where the rook is moved
+         */
+
+        public int getCastleRookDestination()
+        {
+            return this.castleRookDestination;
+        }
+
         /**
          * method that informate user that it is castling move
          *
@@ -363,9 +469,12 @@ public abstract class Move
             {
                 builder.setPiece(piece);
             }
-            builder.setPiece(this.movedPiece.movePiece(this));
-            builder.setPiece(new Rook(this.castleRookDestination, this.castleRook.isWhite(), false));
+            final Piece movedKing = this.movedPiece.movePiece(this);
+            builder.setPiece(movedKing);
+            builder.setPiece(PieceType.ROOK.getPiece(this.castleRookDestination, this.castleRook.isWhite(), false));
             builder.setPlayerTurn(this.board.getCurrentPlayer().getOpponent().isWhitePlayer());
+            builder.setZobristKey(calculateNextZobristKey(movedKing, null));
+            setNextPieceSquareScores(builder, movedKing);
             return builder.build();
         }
     }
@@ -381,18 +490,6 @@ public abstract class Move
         {
             super(board, movedPiece, destination, castleRook, castleRookPosition, castleRookDestination);
         }
-
-        /**
-         * Overridden Object class toString method to convert object of this class to sing of castling
-         *
-         * @return String which contains castling sign
-         */
-
-        @Override
-        public String toString()
-        {
-            return "O-O";
-        }
     }
 
     /**
@@ -405,18 +502,6 @@ public abstract class Move
         {
             super(board, movedPiece, destination, castleRook, castleRookPosition, castleRookDestination);
         }
-
-        /**
-         * Overridden Object class toString method, converts object of this class to sing of castling
-         *
-         * @return String which contains castling sign
-         */
-
-        @Override
-        public String toString()
-        {
-            return "O-O-O";
-        }
     }
 
     /**
@@ -457,6 +542,7 @@ public abstract class Move
 
         /**
          * this method is checking if chosen position and destination exist on board and are registrated
+         * as legal move of the current player, moves are looked up in the index of the board
          *
          * @param board actual game board with all pieces, their positions and avaliable moves
          * @param position chosen position on the board
@@ -466,14 +552,33 @@ public abstract class Move
 
         public static Move createMove(final Board board, final int position, final int destination)
         {
-            for (Move move : board.getAllAvaliableMoves())
-            {
-                if (move.getPosition() == position && move.getDestination() == destination)
-                {
-                    return move;
-                }
-            }
-            return NULL_MOVE;
+            return board.getLegalMove(position, destination);
+        }
+
+        /**
+         * creates move written in long algebraic notation used by UCI protocol, e.g. e2e4
+         *
+         * @param board actual game board with all pieces, their positions and avaliable moves
+         * @param moveName starting box and destination of the move
+         * @return {@code move} if the current player has such legal move; {@code NULL_MOVE} if the name isn't valid or there is no such move
+         */
+
+        public static Move createMove(final Board board, final String moveName)
+        {
+            return MoveNotation.decodeLongAlgebraic(board, moveName);
+        }
+
+        /**
+         * creates move written in standard algebraic notation used by PGN files, e.g. Nf3 or exd5
+         *
+         * @param board actual game board with all pieces, their positions and avaliable moves
+         * @param san move in standard algebraic notation
+         * @return {@code move} if the current player has exactly one legal move like this; {@code NULL_MOVE} otherwise
+         */
+
+        public static Move createSanMove(final Board board, final CharSequence san)
+        {
+            return MoveNotation.decodeSan(board, san);
         }
     }
 }
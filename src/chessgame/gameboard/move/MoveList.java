@@ -0,0 +1,182 @@
+package chessgame.gameboard.move;
+
+import java.util.Arrays;
+
+/**
+ * reusable list of packed moves backed by int array. Clearing the list keeps its array, so the same list
+ * can be filled again without allocation. Array is doubled when it is full.
+ */
+
+public final class MoveList
+{
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     *
+     * @param capacity initial number of moves that can be stored without growing
+     */
+
+    public MoveList(final int capacity)
+    {
+        this.moves = new int[Math.max(1, capacity)];
+    }
+
+    /**
+     * adds packed move at the end of the list
+     *
+     * @param move packed move
+     */
+
+    public void add(final int move)
+    {
+        if (this.size == this.moves.length)
+        {
+            this.moves = Arrays.copyOf(this.moves, 2 * this.moves.length);
+        }
+        this.moves[this.size++] = move;
+    }
+
+    /**
+     * getter of move with given index
+     *
+     * @param index index of the move in the list
+     * @return packed move
+     * @throws IndexOutOfBoundsException if index isn't smaller than size of the list
+     */
+
+    public int get(final int index)
+    {
+        if (index >= this.size)
+        {
+            throw new IndexOutOfBoundsException("index " + index + " out of list of size " + this.size);
+        }
+        return this.moves[index];
+    }
+
+    /**
+     * replaces move with given index
+     *
+     * @param index index of the move in the list
+     * @param move new packed move
+     */
+
+    public void set(final int index, final int move)
+    {
+        if (index >= this.size)
+        {
+            throw new IndexOutOfBoundsException("index " + index + " out of list of size " + this.size);
+        }
+        this.moves[index] = move;
+    }
+
+    /**
+     * swaps two moves of the list, used to sort moves in place
+     *
+     * @param first index of the first move
+     * @param second index of the second move
+     */
+
+    public void swap(final int first, final int second)
+    {
+        final int move = this.moves[first];
+        this.moves[first] = this.moves[second];
+        this.moves[second] = move;
+    }
+
+    /**
+     * removes move with given index, the last move takes its place
+     *
+     * @param index index of the removed move
+     */
+
+    public void remove(final int index)
+    {
+        this.moves[index] = this.moves[--this.size];
+    }
+
+    /**
+     * check if the list contains given move
+     *
+     * @param move packed move
+     * @return {@code true} if the move is in the list; {@code false} otherwise
+     */
+
+    public boolean contains(final int move)
+    {
+        for (int i = 0; i < this.size; i++)
+        {
+            if (this.moves[i] == move)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * getter of number of moves in the list
+     *
+     * @return size of the list
+     */
+
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * check if the list is empty
+     *
+     * @return {@code true} if there is no move; {@code false} otherwise
+     */
+
+    public boolean isEmpty()
+    {
+        return this.size == 0;
+    }
+
+    /**
+     * removes all moves, array of the list is kept
+     */
+
+    public void clear()
+    {
+        this.size = 0;
+    }
+
+    /**
+     * copies moves into new array
+     *
+     * @return array of packed moves
+     */
+
+    public int[] toArray()
+    {
+        return Arrays.copyOf(this.moves, this.size);
+    }
+
+    /**
+     * Overridden Object class toString method, moves are written in long algebraic notation
+     *
+     * @return String which contains all moves of the list
+     */
+
+    @Override
+    public String toString()
+    {
+        final StringBuilder stringBuilder = new StringBuilder("[");
+        for (int i = 0; i < this.size; i++)
+        {
+            stringBuilder.append(i == 0 ? "" : ", ").append(PackedMove.toString(this.moves[i]));
+        }
+        return stringBuilder.append("]").toString();
+    }
+}
@@ -0,0 +1,399 @@
+package chessgame.gameboard.move;
+
+import chessgame.ChessUtil;
+import chessgame.gameboard.AttackTables;
+import chessgame.gameboard.BitBoard;
+import chessgame.gameboard.Board;
+import chessgame.gameboard.chesspieces.Piece;
+import chessgame.gameboard.chesspieces.PieceType;
+
+/**
+ * text notation of moves, standard algebraic notation of PGN files and long algebraic notation of UCI protocol.
+ * Disambiguation and check sign are calculated from bit boards of the current board, next board is built only
+ * for moves which give check to find out if they also give mate.
+ */
+
+public final class MoveNotation
+{
+    private static final String PIECE_SIGNS = "PNBRQK";
+    private static final String ANNOTATION_SIGNS = "+#!?";
+
+    private static final String NULL_MOVE_SAN = "--";
+    static final String NULL_MOVE_LONG_ALGEBRAIC = "0000";
+
+    private MoveNotation()
+    {
+        throw new RuntimeException("not instantionable");
+    }
+
+    /**
+     * writes move in standard algebraic notation with check or mate sign, e.g. Nbd7, exd5, Qh4+ or O-O-O#
+     *
+     * @param move legal move of the current player of its board
+     * @return name of the move, {@code --} for the null move
+     */
+
+    public static String encodeSan(final Move move)
+    {
+        if (move == Move.NULL_MOVE)
+        {
+            return NULL_MOVE_SAN;
+        }
+        final StringBuilder san = appendSan(new StringBuilder(8), move);
+        if (givesCheck(move))
+        {
+            san.append(move.execute().getCurrentPlayer().isInCheckMate() ? '#' : '+');
+        }
+        return san.toString();
+    }
+
+    /**
+     * writes move in standard algebraic notation, check and mate sign are taken from the board after the move.
+     * Used when the next board is already built e.g. when the game is replayed
+     *
+     * @param move legal move of the current player of its board
+     * @param nextBoard board after the move
+     * @return name of the move, {@code --} for the null move
+     */
+
+    public static String encodeSan(final Move move, final Board nextBoard)
+    {
+        if (move == Move.NULL_MOVE)
+        {
+            return NULL_MOVE_SAN;
+        }
+        final StringBuilder san = appendSan(new StringBuilder(8), move);
+        if (nextBoard.getCurrentPlayer().isInCheck())
+        {
+            san.append(nextBoard.getCurrentPlayer().isInCheckMate() ? '#' : '+');
+        }
+        return san.toString();
+    }
+
+    /**
+     * writes move in long algebraic notation used by UCI protocol, castling is written as move of the king e.g. e1g1
+     *
+     * @param move written move
+     * @return names of the starting box and the destination box, {@code 0000} for the null move
+     */
+
+    public static String encodeLongAlgebraic(final Move move)
+    {
+        if (move == Move.NULL_MOVE)
+        {
+            return NULL_MOVE_LONG_ALGEBRAIC;
+        }
+        return encodeLongAlgebraic(move.getPosition(), move.getDestination());
+    }
+
+    /**
+     * writes boxes of the move in long algebraic notation, shared by moves and packed moves
+     *
+     * @param position index of the box where the move starts
+     * @param destination index of the box where the move ends
+     * @return names of the starting box and the destination box
+     */
+
+    static String encodeLongAlgebraic(final int position, final int destination)
+    {
+        return new String(new char[]{getColumnSign(position), getRowSign(position), getColumnSign(destination), getRowSign(destination)});
+    }
+
+    /**
+     * finds legal move written in long algebraic notation, e.g. e2e4
+     *
+     * @param board board on which the move is made
+     * @param moveName starting box and destination of the move
+     * @return {@code move} if the current player has such legal move; {@code NULL_MOVE} if the name isn't valid or there is no such move
+     */
+
+    public static Move decodeLongAlgebraic(final Board board, final CharSequence moveName)
+    {
+        if (moveName == null || moveName.length() != 4)
+        {
+            return Move.NULL_MOVE;
+        }
+        return board.getLegalMove(ChessUtil.getBoxId(moveName, 0), ChessUtil.getBoxId(moveName, 2));
+    }
+
+    /**
+     * finds legal move written in standard algebraic notation, e.g. e4, Nbd7, exd5, Qh4+ or O-O. Check, mate
+     * and annotation signs are ignored, castling can be written with zeros
+     *
+     * @param board board on which the move is made
+     * @param san move in standard algebraic notation
+     * @return {@code move} if exactly one legal move of the current player fits the text; {@code NULL_MOVE} otherwise
+     */
+
+    public static Move decodeSan(final Board board, final CharSequence san)
+    {
+        int end = san.length();
+        while (end > 0 && ANNOTATION_SIGNS.indexOf(san.charAt(end - 1)) >= 0)
+        {
+            end--;
+        }
+        if (end < 2)
+        {
+            return Move.NULL_MOVE;
+        }
+        if (san.charAt(0) == 'O' || san.charAt(0) == '0')
+        {
+            return decodeCastling(board, san, end);
+        }
+
+        int start = 0;
+        PieceType pieceType = PieceType.PAWN;
+        final int type = PIECE_SIGNS.indexOf(san.charAt(0));
+        if (type > 0)
+        {
+            pieceType = PieceType.getType(type);
+            start = 1;
+        }
+        final int destination = ChessUtil.getBoxId(san, end - 2);
+        if (destination < 0)
+        {
+            // promotions, e.g. e8=Q, end with piece sign and the board has no promoted pieces
+            return Move.NULL_MOVE;
+        }
+
+        int column = -1;
+        int row = -1;
+        for (int i = start; i < end - 2; i++)
+        {
+            final char sign = san.charAt(i);
+            if (sign >= 'a' && sign <= 'h')
+            {
+                column = sign - 'a';
+            }
+            else if (sign >= '1' && sign <= '8')
+            {
+                row = ChessUtil.NUMBER_OF_ROWS - (sign - '0');
+            }
+            else if (sign != 'x' && sign != ':' && sign != '-')
+            {
+                return Move.NULL_MOVE;
+            }
+        }
+
+        Move found = Move.NULL_MOVE;
+        for (Move move : board.getCurrentPlayer().getLegalMoves())
+        {
+            final int position = move.getPosition();
+            if (move.getDestination() == destination && move.getMovedPiece().getPieceType() == pieceType &&
+                    (column < 0 || position % ChessUtil.NUMBER_OF_COLUMNS == column) &&
+                    (row < 0 || position / ChessUtil.NUMBER_OF_COLUMNS == row))
+            {
+                if (found != Move.NULL_MOVE)
+                {
+                    // ambiguous text
+                    return Move.NULL_MOVE;
+                }
+                found = move;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * finds castle move written as O-O, O-O-O, 0-0 or 0-0-0
+     *
+     * @param board board on which the move is made
+     * @param san move in standard algebraic notation
+     * @param end index after the last sign of the move without check and annotation signs
+     * @return {@code castle move} if the current player can make it; {@code NULL_MOVE} otherwise
+     */
+
+    private static Move decodeCastling(final Board board, final CharSequence san, final int end)
+    {
+        final char castle = san.charAt(0);
+        for (int i = 1; i < end; i++)
+        {
+            if (san.charAt(i) != (i % 2 == 0 ? castle : '-'))
+            {
+                return Move.NULL_MOVE;
+            }
+        }
+        if (end != 3 && end != 5)
+        {
+            return Move.NULL_MOVE;
+        }
+        final boolean kingSide = end == 3;
+        for (Move move : board.getCurrentPlayer().getLegalMoves())
+        {
+            if (move.isCastlingMove() && (move instanceof Move.KingSideCastleMove) == kingSide)
+            {
+                return move;
+            }
+        }
+        return Move.NULL_MOVE;
+    }
+
+    /**
+     * appends move in standard algebraic notation without check sign
+     *
+     * @param san builder of the text
+     * @param move legal move of the current player of its board
+     * @return the same builder
+     */
+
+    private static StringBuilder appendSan(final StringBuilder san, final Move move)
+    {
+        if (move.isCastlingMove())
+        {
+            return san.append(move instanceof Move.KingSideCastleMove ? "O-O" : "O-O-O");
+        }
+        final int position = move.getPosition();
+        final int destination = move.getDestination();
+        final PieceType pieceType = move.getMovedPiece().getPieceType();
+        if (pieceType == PieceType.PAWN)
+        {
+            if (move.isAttackMove())
+            {
+                san.append(getColumnSign(position)).append('x');
+            }
+            return san.append(getColumnSign(destination)).append(getRowSign(destination));
+        }
+
+        san.append(PIECE_SIGNS.charAt(pieceType.ordinal()));
+        final long others = findOtherMovers(move.board, move.getMovedPiece(), destination);
+        if (others != 0)
+        {
+            final long column = BitBoard.FILE_A << (position % ChessUtil.NUMBER_OF_COLUMNS);
+            final long row = 0xFFL << (position - position % ChessUtil.NUMBER_OF_COLUMNS);
+            if ((others & column) == 0)
+            {
+                san.append(getColumnSign(position));
+            }
+            else if ((others & row) == 0)
+            {
+                san.append(getRowSign(position));
+            }
+            else
+            {
+                san.append(getColumnSign(position)).append(getRowSign(position));
+            }
+        }
+        if (move.isAttackMove())
+        {
+            san.append('x');
+        }
+        return san.append(getColumnSign(destination)).append(getRowSign(destination));
+    }
+
+    /**
+     * finds other pieces of the same type and colour which can legally move to the destination. Attacks of the pieces
+     * are taken from bit boards, legal moves of the board are checked only when there is such piece
+     *
+     * @param board board on which the move is made
+     * @param movedPiece moved piece
+     * @param destination index of the destination box
+     * @return mask of boxes with other pieces that need disambiguation
+     */
+
+    private static long findOtherMovers(final Board board, final Piece movedPiece, final int destination)
+    {
+        final BitBoard bitBoard = board.getBitBoard();
+        final PieceType pieceType = movedPiece.getPieceType();
+        final long occupancy = bitBoard.getOccupancy();
+        long candidates = bitBoard.getPieceBitBoard(pieceType, movedPiece.isWhite()) & ~(1L << movedPiece.getPosition());
+        switch (pieceType)
+        {
+            case KNIGHT:
+                candidates &= AttackTables.getKnightAttacks(destination);
+                break;
+            case BISHOP:
+                candidates &= BitBoard.bishopAttacks(destination, occupancy);
+                break;
+            case ROOK:
+                candidates &= BitBoard.rookAttacks(destination, occupancy);
+                break;
+            case QUEEN:
+                candidates &= BitBoard.queenAttacks(destination, occupancy);
+                break;
+            default:
+                return 0L;
+        }
+        long others = 0L;
+        for (; candidates != 0; candidates &= candidates - 1)
+        {
+            final int position = Long.numberOfTrailingZeros(candidates);
+            // pinned pieces don't need disambiguation
+            if (board.getLegalMove(position, destination) != Move.NULL_MOVE)
+            {
+                others |= 1L << position;
+            }
+        }
+        return others;
+    }
+
+    /**
+     * check if the move attacks enemy king, directly or by uncovering own sliding piece, without making the move
+     *
+     * @param move legal move of the current player of its board
+     * @return {@code true} if the enemy king is in check after the move; {@code false} otherwise
+     */
+
+    private static boolean givesCheck(final Move move)
+    {
+        final BitBoard bitBoard = move.board.getBitBoard();
+        final boolean white = move.getMovedPiece().isWhite();
+        final PieceType movedType = move.getMovedPiece().getPieceType();
+        final long moveMask = (1L << move.getPosition()) | (1L << move.getDestination());
+        final long enemyKing = bitBoard.getPieceBitBoard(PieceType.KING, !white);
+        if (enemyKing == 0)
+        {
+            return false;
+        }
+        final int kingBox = Long.numberOfTrailingZeros(enemyKing);
+
+        long occupancy = (bitBoard.getOccupancy() & ~(1L << move.getPosition())) | (1L << move.getDestination());
+        if (move.isAttackMove())
+        {
+            // en passant captured pawn doesn't stand on the destination
+            occupancy &= ~(1L << move.getAttackedPiece().getPosition()) | (1L << move.getDestination());
+        }
+        long rooks = bitBoard.getPieceBitBoard(PieceType.ROOK, white);
+        if (move.isCastlingMove())
+        {
+            final Move.CastleMove castleMove = (Move.CastleMove) move;
+            final long rookMask = (1L << castleMove.getCastleRookPosition()) | (1L << castleMove.getCastleRookDestination());
+            occupancy ^= rookMask;
+            rooks ^= rookMask;
+        }
+
+        final long pawns = bitBoard.getPieceBitBoard(PieceType.PAWN, white) ^ (movedType == PieceType.PAWN ? moveMask : 0L);
+        final long knights = bitBoard.getPieceBitBoard(PieceType.KNIGHT, white) ^ (movedType == PieceType.KNIGHT ? moveMask : 0L);
+        final long bishops = bitBoard.getPieceBitBoard(PieceType.BISHOP, white) ^ (movedType == PieceType.BISHOP ? moveMask : 0L);
+        final long queens = bitBoard.getPieceBitBoard(PieceType.QUEEN, white) ^ (movedType == PieceType.QUEEN ? moveMask : 0L);
+        rooks ^= movedType == PieceType.ROOK ? moveMask : 0L;
+
+        return (AttackTables.getPawnAttacks(kingBox, !white) & pawns) != 0 ||
+                (AttackTables.getKnightAttacks(kingBox) & knights) != 0 ||
+                (BitBoard.bishopAttacks(kingBox, occupancy) & (bishops | queens)) != 0 ||
+                (BitBoard.rookAttacks(kingBox, occupancy) & (rooks | queens)) != 0;
+    }
+
+    /**
+     * getter of column letter of the box
+     *
+     * @param boxId index of the box
+     * @return letter from a to h
+     */
+
+    private static char getColumnSign(final int boxId)
+    {
+        return (char) ('a' + boxId % ChessUtil.NUMBER_OF_COLUMNS);
+    }
+
+    /**
+     * getter of row number of the box, box 0 is a8
+     *
+     * @param boxId index of the box
+     * @return digit from 1 to 8
+     */
+
+    private static char getRowSign(final int boxId)
+    {
+        return (char) ('0' + ChessUtil.NUMBER_OF_ROWS - boxId / ChessUtil.NUMBER_OF_COLUMNS);
+    }
+}
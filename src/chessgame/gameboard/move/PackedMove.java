@@ -0,0 +1,294 @@
+package chessgame.gameboard.move;
+
+import chessgame.gameboard.chesspieces.PieceType;
+import chessgame.gameboard.move.Move.KingSideCastleMove;
+import chessgame.gameboard.move.Move.PawnEnPassantAttackMove;
+import chessgame.gameboard.move.Move.PawnJump;
+import chessgame.gameboard.move.Move.QueenSideCastleMove;
+
+import java.util.Collection;
+
+/**
+ * move packed into one int, used where moves are generated or stored in large numbers. Bits of the move:
+ * <pre>
+ *  0 - 5   starting box
+ *  6 - 11  destination box
+ * 12 - 14  type of the moved piece, ordinal + 1
+ * 15 - 17  type of the captured piece, ordinal + 1 or 0 if nothing is captured
+ * 18       colour of the moved piece, set for white
+ * 19 - 22  flags of special moves
+ * </pre>
+ * Valid move is never {@code 0}, so {@code 0} means no move.
+ */
+
+public final class PackedMove
+{
+    public static final int NO_MOVE = 0;
+
+    public static final int PAWN_JUMP = 1 << 19;
+    public static final int EN_PASSANT = 1 << 20;
+    public static final int KING_SIDE_CASTLE = 1 << 21;
+    public static final int QUEEN_SIDE_CASTLE = 1 << 22;
+
+    private static final int BOX_MASK = 0x3F;
+    private static final int DESTINATION_SHIFT = 6;
+    private static final int MOVED_PIECE_SHIFT = 12;
+    private static final int CAPTURED_PIECE_SHIFT = 15;
+    private static final int PIECE_MASK = 0x7;
+    private static final int WHITE = 1 << 18;
+    private static final int CASTLE = KING_SIDE_CASTLE | QUEEN_SIDE_CASTLE;
+
+    private PackedMove()
+    {
+        throw new RuntimeException("not instantionable");
+    }
+
+    /**
+     * packs move into int
+     *
+     * @param position index of the box where the move starts
+     * @param destination index of the box where the move ends
+     * @param movedPiece type of the moved piece
+     * @param white colour of the moved piece
+     * @param capturedPiece type of the captured piece or {@code null} if nothing is captured
+     * @param flags sum of special move flags or {@code 0}
+     * @return packed move
+     */
+
+    public static int create(final int position, final int destination, final PieceType movedPiece, final boolean white,
+                             final PieceType capturedPiece, final int flags)
+    {
+        return create(position, destination, movedPiece.ordinal(), white, capturedPiece == null ? -1 : capturedPiece.ordinal(), flags);
+    }
+
+    /**
+     * packs move into int, piece types are given by ordinal numbers
+     *
+     * @param position index of the box where the move starts
+     * @param destination index of the box where the move ends
+     * @param movedPiece ordinal number of type of the moved piece
+     * @param white colour of the moved piece
+     * @param capturedPiece ordinal number of type of the captured piece or {@code -1} if nothing is captured
+     * @param flags sum of special move flags or {@code 0}
+     * @return packed move
+     */
+
+    public static int create(final int position, final int destination, final int movedPiece, final boolean white,
+                             final int capturedPiece, final int flags)
+    {
+        return position | destination << DESTINATION_SHIFT | (movedPiece + 1) << MOVED_PIECE_SHIFT |
+                (capturedPiece + 1) << CAPTURED_PIECE_SHIFT | (white ? WHITE : 0) | flags;
+    }
+
+    /**
+     * packs move of the Move class
+     *
+     * @param move move that will be packed
+     * @return packed move or {@link #NO_MOVE} for the null move
+     */
+
+    public static int fromMove(final Move move)
+    {
+        if (move == null || move.getMovedPiece() == null)
+        {
+            return NO_MOVE;
+        }
+        int flags = 0;
+        if (move instanceof PawnJump)
+        {
+            flags = PAWN_JUMP;
+        }
+        else if (move instanceof PawnEnPassantAttackMove)
+        {
+            flags = EN_PASSANT;
+        }
+        else if (move instanceof KingSideCastleMove)
+        {
+            flags = KING_SIDE_CASTLE;
+        }
+        else if (move instanceof QueenSideCastleMove)
+        {
+            flags = QUEEN_SIDE_CASTLE;
+        }
+        final PieceType capturedPiece = move.isAttackMove() ? move.getAttackedPiece().getPieceType() : null;
+        return create(move.getPosition(), move.getDestination(), move.getMovedPiece().getPieceType(),
+                move.getMovedPiece().isWhite(), capturedPiece, flags);
+    }
+
+    /**
+     * finds move of the Move class that is the same as packed move among moves which are already generated, so no index
+     * of legal moves is built. Moves are matched by their boxes, packed moves don't have promotions
+     *
+     * @param moves generated moves of the current player
+     * @param move packed move
+     * @return move with the same boxes; {@code NULL_MOVE} if there is no such move
+     */
+
+    public static Move toMove(final Collection<Move> moves, final int move)
+    {
+        if (move == NO_MOVE)
+        {
+            return Move.NULL_MOVE;
+        }
+        final int position = getPosition(move);
+        final int destination = getDestination(move);
+        for (Move candidate : moves)
+        {
+            if (candidate.getPosition() == position && candidate.getDestination() == destination)
+            {
+                return candidate;
+            }
+        }
+        return Move.NULL_MOVE;
+    }
+
+    /**
+     * getter of the starting box
+     *
+     * @param move packed move
+     * @return index of the box where the move starts
+     */
+
+    public static int getPosition(final int move)
+    {
+        return move & BOX_MASK;
+    }
+
+    /**
+     * getter of the destination box
+     *
+     * @param move packed move
+     * @return index of the box where the move ends
+     */
+
+    public static int getDestination(final int move)
+    {
+        return (move >>> DESTINATION_SHIFT) & BOX_MASK;
+    }
+
+    /**
+     * getter of ordinal number of type of the moved piece
+     *
+     * @param move packed move
+     * @return ordinal number of the piece type
+     */
+
+    public static int getMovedPieceIndex(final int move)
+    {
+        return ((move >>> MOVED_PIECE_SHIFT) & PIECE_MASK) - 1;
+    }
+
+    /**
+     * getter of type of the moved piece
+     *
+     * @param move packed move
+     * @return type of the moved piece
+     */
+
+    public static PieceType getMovedPiece(final int move)
+    {
+        return PieceType.getType(getMovedPieceIndex(move));
+    }
+
+    /**
+     * getter of ordinal number of type of the captured piece
+     *
+     * @param move packed move
+     * @return ordinal number of the piece type or {@code -1} if nothing is captured
+     */
+
+    public static int getCapturedPieceIndex(final int move)
+    {
+        return ((move >>> CAPTURED_PIECE_SHIFT) & PIECE_MASK) - 1;
+    }
+
+    /**
+     * getter of type of the captured piece
+     *
+     * @param move packed move
+     * @return type of the captured piece or {@code null} if nothing is captured
+     */
+
+    public static PieceType getCapturedPiece(final int move)
+    {
+        final int index = getCapturedPieceIndex(move);
+        return index < 0 ? null : PieceType.getType(index);
+    }
+
+    /**
+     * check if the moved piece is white
+     *
+     * @param move packed move
+     * @return {@code true} if white piece is moved; {@code false} otherwise
+     */
+
+    public static boolean isWhite(final int move)
+    {
+        return (move & WHITE) != 0;
+    }
+
+    /**
+     * check if the move captures a piece
+     *
+     * @param move packed move
+     * @return {@code true} if this is attack move; {@code false} otherwise
+     */
+
+    public static boolean isAttackMove(final int move)
+    {
+        return getCapturedPieceIndex(move) >= 0;
+    }
+
+    /**
+     * check if the move is castling
+     *
+     * @param move packed move
+     * @return {@code true} if this is king side or queen side castle; {@code false} otherwise
+     */
+
+    public static boolean isCastlingMove(final int move)
+    {
+        return (move & CASTLE) != 0;
+    }
+
+    /**
+     * check if the move has given flag
+     *
+     * @param move packed move
+     * @param flag one of the special move flags
+     * @return {@code true} if the flag is set; {@code false} otherwise
+     */
+
+    public static boolean hasFlag(final int move, final int flag)
+    {
+        return (move & flag) != 0;
+    }
+
+    /**
+     * getter of starting box and destination only, the same boxes give the same key for every position
+     *
+     * @param move packed move
+     * @return starting box and destination packed into 12 bits
+     */
+
+    public static int getBoxes(final int move)
+    {
+        return move & (BOX_MASK | BOX_MASK << DESTINATION_SHIFT);
+    }
+
+    /**
+     * name of the move in long algebraic notation, e.g. e2e4
+     *
+     * @param move packed move
+     * @return names of the starting box and the destination box
+     */
+
+    public static String toString(final int move)
+    {
+        if (move == NO_MOVE)
+        {
+            return MoveNotation.NULL_MOVE_LONG_ALGEBRAIC;
+        }
+        return MoveNotation.encodeLongAlgebraic(getPosition(move), getDestination(move));
+    }
+}
@@ -3,9 +3,12 @@ package chessgame.gui;
 import chessgame.FileManager;
 import chessgame.gameboard.Board;
 import chessgame.gameboard.BoardBox;
+import chessgame.gameboard.Fen;
 import chessgame.gameboard.chesspieces.Piece;
 import chessgame.gameboard.move.Move;
 import chessgame.gameboard.move.Movement;
+import chessgame.pgn.PgnGame;
+import chessgame.pgn.PgnReader;
 
 import javax.imageio.ImageIO;
 import javax.swing.*;
@@ -87,7 +90,11 @@ public class ChessFrame
             @Override
             public void actionPerformed(ActionEvent e)
             {
-                System.out.println("open pgn");
+                final JFileChooser fileChooser = new JFileChooser();
+                if (fileChooser.showOpenDialog(gameFrame) == JFileChooser.APPROVE_OPTION)
+                {
+                    loadPgnGame(fileChooser.getSelectedFile());
+                }
             }
         });
 
@@ -96,7 +103,7 @@ public class ChessFrame
             @Override
             public void actionPerformed(ActionEvent e)
             {
-                fileManager.saveGameState(chessBoard.toString());
+                fileManager.saveGameState(Fen.write(chessBoard));
             }
         });
 
@@ -116,6 +123,35 @@ public class ChessFrame
         return fileMenu;
     }
 
+    /**
+     * replays the first game of PGN file and shows board after its last move
+     *
+     * @param file chosen PGN file
+     */
+
+    private void loadPgnGame(final File file)
+    {
+        try (PgnReader reader = new PgnReader(file.toPath()))
+        {
+            final PgnGame game = reader.nextGame();
+            if (game == null)
+            {
+                JOptionPane.showMessageDialog(gameFrame, "file doesn't contain any game");
+                return;
+            }
+            final List<Board> boards = game.replay();
+            chessBoard = boards.get(boards.size() - 1);
+            sourceBox = null;
+            destinationBox = null;
+            humanMovedPiece = null;
+            boardPanel.drawBoard(chessBoard);
+        }
+        catch (IOException | IllegalArgumentException e)
+        {
+            JOptionPane.showMessageDialog(gameFrame, e.getMessage(), "Load PGN File", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     private class BoardPanel extends JPanel
     {
         private final List<BoxPanel> boxes;
@@ -0,0 +1,179 @@
+package chessgame.perft;
+
+import chessgame.gameboard.Board;
+import chessgame.gameboard.move.Move;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * perft which counts subtrees of the moves concurrently. Boards are immutable, so every subtree is an independent
+ * fork/join task, idle threads steal not started subtrees and counts of subtrees are summed when tasks join.
+ */
+
+public final class ParallelPerft
+{
+    /**
+     * subtrees with this or smaller depth are counted by one thread
+     */
+    public static final int SEQUENTIAL_DEPTH = 2;
+
+    private ParallelPerft()
+    {
+        throw new RuntimeException("not instantionable");
+    }
+
+    /**
+     * counts positions reachable from the board in given number of moves using common fork/join pool
+     *
+     * @param board starting board
+     * @param depth number of moves
+     * @return number of positions
+     */
+
+    public static long perft(final Board board, final int depth)
+    {
+        return perft(board, depth, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * counts positions reachable from the board in given number of moves
+     *
+     * @param board starting board
+     * @param depth number of moves
+     * @param pool pool whose threads count the subtrees
+     * @return number of positions
+     */
+
+    public static long perft(final Board board, final int depth, final ForkJoinPool pool)
+    {
+        return pool.invoke(new PerftTask(board, depth));
+    }
+
+    /**
+     * counts positions reachable after every legal move of the board, every move is counted by separate task
+     *
+     * @param board starting board
+     * @param depth number of moves, including the divided move
+     * @param pool pool whose threads count the subtrees
+     * @return map of legal moves and number of positions reachable after them
+     * @throws IllegalArgumentException if depth is less than 1
+     */
+
+    public static Map<Move, Long> divide(final Board board, final int depth, final ForkJoinPool pool)
+    {
+        if (depth < 1)
+        {
+            throw new IllegalArgumentException("depth of divide must be at least 1");
+        }
+        final Collection<Move> moves = board.getCurrentPlayer().getLegalMoves();
+        final List<PerftTask> tasks = new ArrayList<>(moves.size());
+        for (Move move : moves)
+        {
+            tasks.add(new PerftTask(move.execute(), depth - 1));
+        }
+        pool.invoke(new RecursiveTask<Void>()
+        {
+            @Override
+            protected Void compute()
+            {
+                invokeAll(tasks);
+                return null;
+            }
+        });
+        final Map<Move, Long> nodes = new LinkedHashMap<>();
+        int i = 0;
+        for (Move move : moves)
+        {
+            nodes.put(move, tasks.get(i++).join());
+        }
+        return nodes;
+    }
+
+    /**
+     * runs parallel perft from standard starting board. Usage: {@code ParallelPerft [depth] [threads] [divide]}
+     *
+     * @param args depth, number of threads and optional divide mode
+     * @throws IllegalArgumentException if depth is less than 1
+     */
+
+    public static void main(String[] args)
+    {
+        final int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        if (depth < 1)
+        {
+            throw new IllegalArgumentException("depth of perft must be at least 1");
+        }
+        final int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        final boolean divide = args.length > 2 && args[2].equals("divide");
+        final Board board = Board.createStandardBoard();
+        final ForkJoinPool pool = new ForkJoinPool(threads);
+
+        final long start = System.nanoTime();
+        long nodes = 0;
+        if (divide)
+        {
+            for (Map.Entry<Move, Long> entry : divide(board, depth, pool).entrySet())
+            {
+                System.out.println(Perft.getMoveName(entry.getKey()) + ": " + entry.getValue());
+                nodes += entry.getValue();
+            }
+        }
+        else
+        {
+            nodes = perft(board, depth, pool);
+        }
+        final long time = System.nanoTime() - start;
+        pool.shutdown();
+
+        System.out.println("nodes: " + nodes);
+        System.out.println("threads: " + threads);
+        System.out.println("time: " + time / 1_000_000 + " ms");
+        System.out.println("speed: " + PerftBenchmark.nodesPerSecond(nodes, time) + " nodes/s");
+    }
+
+    /**
+     * task which counts one subtree, subtrees of its legal moves are forked as next tasks
+     */
+
+    private static final class PerftTask extends RecursiveTask<Long>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final int depth;
+
+        PerftTask(final Board board, final int depth)
+        {
+            this.board = board;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute()
+        {
+            if (this.depth <= SEQUENTIAL_DEPTH)
+            {
+                return Perft.perft(this.board, this.depth);
+            }
+            final Collection<Move> moves = this.board.getCurrentPlayer().getLegalMoves();
+            final List<PerftTask> subtrees = new ArrayList<>(moves.size());
+            for (Move move : moves)
+            {
+                subtrees.add(new PerftTask(move.execute(), this.depth - 1));
+            }
+            invokeAll(subtrees);
+            long nodes = 0;
+            for (PerftTask subtree : subtrees)
+            {
+                nodes += subtree.join();
+            }
+            return nodes;
+        }
+    }
+}
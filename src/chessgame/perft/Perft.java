@@ -0,0 +1,315 @@
+package chessgame.perft;
+
+import chessgame.gameboard.Board;
+import chessgame.gameboard.Fen;
+import chessgame.gameboard.SearchBoard;
+import chessgame.gameboard.move.Move;
+import chessgame.gameboard.move.MoveList;
+import chessgame.gameboard.move.MoveNotation;
+import chessgame.gameboard.move.Movement;
+import chessgame.player.Player;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * perft counts all positions reachable in given number of moves. Counts are compared with known values
+ * to check if move generation is correct and time of counting measures speed of the move generation.
+ * Move generation doesn't create en passant captures and promotions, so positions where they are possible
+ * give lower counts than the published ones, these differences are reported as known gaps.
+ */
+
+public final class Perft
+{
+    /**
+     * known numbers of positions reachable from standard starting board, index is depth
+     */
+    public static final long[] STANDARD_BOARD_NODES = {1, 20, 400, 8902, 197281, 4865609};
+
+    private static final String EN_PASSANT_GAP = "en passant isn't generated";
+    private static final String PROMOTION_GAP = "promotions aren't generated";
+
+    /**
+     * standard perft positions with their published counts
+     */
+    private static final PerftPosition[] VERIFIED_POSITIONS = {
+            new PerftPosition("start", Fen.STARTING_POSITION, STANDARD_BOARD_NODES, 5, EN_PASSANT_GAP),
+            new PerftPosition("kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                    new long[]{1, 48, 2039, 97862, 4085603}, 2, EN_PASSANT_GAP),
+            new PerftPosition("position 3", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    new long[]{1, 14, 191, 2812, 43238, 674624}, 3, EN_PASSANT_GAP),
+            new PerftPosition("position 4", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                    new long[]{1, 6, 264, 9467, 422333}, 2, PROMOTION_GAP),
+            new PerftPosition("position 5", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                    new long[]{1, 44, 1486, 62379, 2103487}, 1, PROMOTION_GAP),
+            new PerftPosition("position 6", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    new long[]{1, 46, 2079, 89890, 3894594}, PerftPosition.NO_GAP, null)
+    };
+
+    private Perft()
+    {
+        throw new RuntimeException("not instantionable");
+    }
+
+    /**
+     * counts positions reachable from the board in given number of moves, moves are made by {@link Player#makeMove}
+     *
+     * @param board starting board
+     * @param depth number of moves, only the board itself is counted if it is less than 1
+     * @return number of positions
+     */
+
+    public static long perft(final Board board, final int depth)
+    {
+        if (depth <= 0)
+        {
+            return 1;
+        }
+        final Player player = board.getCurrentPlayer();
+        if (depth == 1)
+        {
+            return player.getLegalMoves().size();
+        }
+        long nodes = 0;
+        for (Move move : player.getAvailableMoves())
+        {
+            final Movement movement = player.makeMove(move);
+            if (movement.isDone())
+            {
+                nodes += perft(movement.getNextBoard(), depth - 1);
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * counts positions reachable from the search board in given number of moves, moves are generated as packed moves
+     * and made in place, so counting doesn't allocate moves
+     *
+     * @param board starting board, it is in the same position after counting
+     * @param depth number of moves, only the board itself is counted if it is less than 1
+     * @return number of positions
+     */
+
+    public static long perft(final SearchBoard board, final int depth)
+    {
+        final MoveList[] moveLists = new MoveList[Math.max(1, depth)];
+        for (int i = 0; i < moveLists.length; i++)
+        {
+            moveLists[i] = new MoveList();
+        }
+        return perft(board, depth, moveLists);
+    }
+
+    /**
+     * counts positions reachable from the search board, every depth has its own move list
+     *
+     * @param board starting board
+     * @param depth number of moves
+     * @param moveLists reusable move lists indexed by depth
+     * @return number of positions
+     */
+
+    private static long perft(final SearchBoard board, final int depth, final MoveList[] moveLists)
+    {
+        if (depth <= 0)
+        {
+            return 1;
+        }
+        final MoveList moves = moveLists[depth - 1];
+        board.generateMoves(moves);
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++)
+        {
+            if (depth == 1)
+            {
+                nodes += board.isLegal(moves.get(i)) ? 1 : 0;
+                continue;
+            }
+            board.makeMove(moves.get(i));
+            if (!board.isKingAttacked(!board.isWhiteTurn()))
+            {
+                nodes += perft(board, depth - 1, moveLists);
+            }
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * counts positions reachable after every legal move of the board
+     *
+     * @param board starting board
+     * @param depth number of moves, including the divided move, at least 1
+     * @return map of legal moves and number of positions reachable after them
+     * @throws IllegalArgumentException if depth is less than 1
+     */
+
+    public static Map<Move, Long> divide(final Board board, final int depth)
+    {
+        if (depth < 1)
+        {
+            throw new IllegalArgumentException("depth of divide must be at least 1");
+        }
+        final Map<Move, Long> nodes = new LinkedHashMap<>();
+        for (Move move : board.getCurrentPlayer().getLegalMoves())
+        {
+            nodes.put(move, perft(move.execute(), depth - 1));
+        }
+        return nodes;
+    }
+
+    /**
+     * name of the move in the perft output, e.g. e2e4
+     *
+     * @param move move that will be named
+     * @return names of the starting box and the destination box
+     */
+
+    public static String getMoveName(final Move move)
+    {
+        return MoveNotation.encodeLongAlgebraic(move);
+    }
+
+    /**
+     * runs perft from standard starting board or from given position. Usage: {@code Perft <depth> [divide|verify|packed] [fen]}.
+     * {@code divide} prints count of every root move, {@code verify} compares counts of all depths with known values
+     * for both move generators on the standard perft positions, {@code packed} counts with packed moves on the search board.
+     *
+     * @param args depth, optional mode and optional position in Forsyth-Edwards notation
+     * @throws IllegalArgumentException if depth is less than 1
+     */
+
+    public static void main(String[] args)
+    {
+        final int depth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        if (depth < 1)
+        {
+            throw new IllegalArgumentException("depth of perft must be at least 1");
+        }
+        final String mode = args.length > 1 ? args[1] : "";
+        final Board board = args.length > 2 ? Fen.createBoard(String.join(" ", Arrays.copyOfRange(args, 2, args.length))) :
+                Board.createStandardBoard();
+
+        if (mode.equals("verify"))
+        {
+            if (!verify(depth))
+            {
+                System.exit(1);
+            }
+            return;
+        }
+
+        final long start = System.nanoTime();
+        long nodes = 0;
+        if (mode.equals("divide"))
+        {
+            for (Map.Entry<Move, Long> entry : divide(board, depth).entrySet())
+            {
+                System.out.println(getMoveName(entry.getKey()) + ": " + entry.getValue());
+                nodes += entry.getValue();
+            }
+        }
+        else if (mode.equals("packed"))
+        {
+            nodes = perft(new SearchBoard(board), depth);
+        }
+        else
+        {
+            nodes = perft(board, depth);
+        }
+        final long time = System.nanoTime() - start;
+        System.out.println("nodes: " + nodes);
+        System.out.println("time: " + time / 1_000_000 + " ms");
+    }
+
+    /**
+     * compares counts of both move generators with published counts of the standard perft positions. Lower counts
+     * caused by missing en passant captures and promotions are reported as known gaps and don't fail the verification
+     *
+     * @param maxDepth maximum verified depth
+     * @return {@code true} if all counts match except known gaps; {@code false} otherwise
+     */
+
+    private static boolean verify(final int maxDepth)
+    {
+        boolean correct = true;
+        for (PerftPosition position : VERIFIED_POSITIONS)
+        {
+            final Board board = Fen.createBoard(position.fen);
+            for (int depth = 1; depth <= Math.min(maxDepth, position.nodes.length - 1); depth++)
+            {
+                final long nodes = perft(board, depth);
+                final long packedNodes = perft(new SearchBoard(board), depth);
+                final long expected = position.nodes[depth];
+                String status;
+                if (nodes != packedNodes)
+                {
+                    status = "generators differ, expected " + expected;
+                    correct = false;
+                }
+                else if (nodes == expected)
+                {
+                    status = "ok";
+                }
+                else if (position.isKnownGap(depth) && nodes < expected)
+                {
+                    status = "expected " + expected + ", known gap: " + position.gap;
+                }
+                else
+                {
+                    status = "expected " + expected;
+                    correct = false;
+                }
+                System.out.println(position.name + " depth " + depth + ": " + nodes + ", packed " + packedNodes + " " + status);
+            }
+        }
+        return correct;
+    }
+
+    /**
+     * position of the perft verification with its published counts
+     */
+
+    private static final class PerftPosition
+    {
+        static final int NO_GAP = Integer.MAX_VALUE;
+
+        final String name;
+        final String fen;
+        final long[] nodes;
+        final int gapDepth;
+        final String gap;
+
+        /**
+         *
+         * @param name name of the position
+         * @param fen position in Forsyth-Edwards notation
+         * @param nodes published counts, index is depth
+         * @param gapDepth first depth where missing moves lower the count or {@code NO_GAP}
+         * @param gap description of the missing moves
+         */
+
+        PerftPosition(final String name, final String fen, final long[] nodes, final int gapDepth, final String gap)
+        {
+            this.name = name;
+            this.fen = fen;
+            this.nodes = nodes;
+            this.gapDepth = gapDepth;
+            this.gap = gap;
+        }
+
+        /**
+         * check if counts of the depth are lowered by moves which aren't generated
+         *
+         * @param depth verified depth
+         * @return {@code true} if lower count is expected; {@code false} otherwise
+         */
+
+        boolean isKnownGap(final int depth)
+        {
+            return depth >= this.gapDepth;
+        }
+    }
+}
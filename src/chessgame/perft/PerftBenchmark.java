@@ -0,0 +1,61 @@
+package chessgame.perft;
+
+import chessgame.gameboard.Board;
+
+/**
+ * benchmark of the move generation, runs perft several times and reports number of positions per second.
+ * First iterations warm up the virtual machine and aren't measured.
+ */
+
+public final class PerftBenchmark
+{
+    private PerftBenchmark()
+    {
+        throw new RuntimeException("not instantionable");
+    }
+
+    /**
+     * runs the benchmark from standard starting board. Usage: {@code PerftBenchmark [depth] [warmups] [iterations]}
+     *
+     * @param args depth of perft, number of warm up iterations and number of measured iterations
+     */
+
+    public static void main(String[] args)
+    {
+        final int depth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        final int warmups = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        final int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        final Board board = Board.createStandardBoard();
+
+        for (int i = 0; i < warmups; i++)
+        {
+            Perft.perft(board, depth);
+        }
+
+        long totalNodes = 0;
+        long totalTime = 0;
+        for (int i = 0; i < iterations; i++)
+        {
+            final long start = System.nanoTime();
+            final long nodes = Perft.perft(board, depth);
+            final long time = System.nanoTime() - start;
+            totalNodes += nodes;
+            totalTime += time;
+            System.out.println("iteration " + (i + 1) + ": " + nodes + " nodes, " + nodesPerSecond(nodes, time) + " nodes/s");
+        }
+        System.out.println("average: " + nodesPerSecond(totalNodes, totalTime) + " nodes/s");
+    }
+
+    /**
+     * calculates speed of the perft
+     *
+     * @param nodes number of counted positions
+     * @param time time of counting in nanoseconds
+     * @return number of positions per second
+     */
+
+    static long nodesPerSecond(final long nodes, final long time)
+    {
+        return time == 0 ? 0 : nodes * 1_000_000_000L / time;
+    }
+}
@@ -0,0 +1,121 @@
+package chessgame.pgn;
+
+import chessgame.gameboard.Board;
+import chessgame.gameboard.Fen;
+import chessgame.gameboard.move.Move;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * class which represents one game read from PGN file, it keeps tags, moves of the main line in standard algebraic
+ * notation and result. Moves are resolved against the board only when the game is replayed.
+ */
+
+public final class PgnGame
+{
+    public static final String UNKNOWN_RESULT = "*";
+
+    private final Map<String, String> tags;
+    private final List<String> moves;
+    private final String result;
+
+    /**
+     *
+     * @param tags tag pairs of the game in order of the file
+     * @param moves moves of the main line in standard algebraic notation
+     * @param result game termination marker, {@code *} if the game has no result
+     */
+
+    public PgnGame(final Map<String, String> tags, final List<String> moves, final String result)
+    {
+        this.tags = Collections.unmodifiableMap(tags);
+        this.moves = Collections.unmodifiableList(moves);
+        this.result = result;
+    }
+
+    /**
+     * getter of value of the tag
+     *
+     * @param name name of the tag e.g. White
+     * @return value of the tag or {@code null} if the game has no such tag
+     */
+
+    public String getTag(final String name)
+    {
+        return this.tags.get(name);
+    }
+
+    /**
+     * getter of all tags
+     *
+     * @return map from tag names to their values
+     */
+
+    public Map<String, String> getTags()
+    {
+        return this.tags;
+    }
+
+    /**
+     * getter of moves
+     *
+     * @return moves of the main line in standard algebraic notation, without move numbers, comments and variations
+     */
+
+    public List<String> getMoves()
+    {
+        return this.moves;
+    }
+
+    /**
+     * getter of result
+     *
+     * @return {@code 1-0}, {@code 0-1}, {@code 1/2-1/2} or {@code *}
+     */
+
+    public String getResult()
+    {
+        return this.result;
+    }
+
+    /**
+     * creates board where the game starts, position of FEN tag is used if the game has one
+     *
+     * @return starting board of the game
+     * @throws IllegalArgumentException if FEN tag isn't valid
+     */
+
+    public Board createStartingBoard()
+    {
+        final String fen = this.tags.get("FEN");
+        return fen == null ? Board.createStandardBoard() : Fen.createBoard(fen);
+    }
+
+    /**
+     * replays moves of the game, each move is resolved against the previous board
+     *
+     * @return boards of the game, starting board first and board after the last move last
+     * @throws IllegalArgumentException if any move isn't legal move of the player to move
+     */
+
+    public List<Board> replay()
+    {
+        final List<Board> boards = new ArrayList<>(this.moves.size() + 1);
+        Board board = createStartingBoard();
+        boards.add(board);
+        for (int ply = 0; ply < this.moves.size(); ply++)
+        {
+            final Move move = Move.MoveFactory.createSanMove(board, this.moves.get(ply));
+            if (move == Move.NULL_MOVE)
+            {
+                throw new IllegalArgumentException("illegal move " + this.moves.get(ply) + " at ply " + (ply + 1));
+            }
+            board = move.execute();
+            boards.add(board);
+        }
+        return boards;
+    }
+}
@@ -0,0 +1,511 @@
+package chessgame.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * streaming reader of PGN files. Bytes are read through one fixed buffer and split into tokens on the fly, so only
+ * the game being read is kept in memory and archives of any size can be read game by game. Comments, variations,
+ * numeric annotation glyphs, move numbers and escaped lines are skipped, moves of the main line are kept as text.
+ */
+
+public final class PgnReader implements Closeable
+{
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final int END_OF_INPUT = 0;
+    private static final int TAG_START = 1;
+    private static final int TAG_END = 2;
+    private static final int STRING = 3;
+    private static final int SYMBOL = 4;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] bytes;
+    private int position;
+    private int limit;
+
+    private byte[] token;
+    private int tokenLength;
+    private boolean tagStartPushedBack;
+    private boolean lineStart;
+    private int line;
+
+    /**
+     *
+     * @param path path of the PGN file
+     * @throws IOException if the file can't be opened
+     */
+
+    public PgnReader(final Path path) throws IOException
+    {
+        this(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    /**
+     *
+     * @param channel channel with PGN text, it is closed together with the reader
+     */
+
+    public PgnReader(final ReadableByteChannel channel)
+    {
+        this.channel = channel;
+        this.bytes = new byte[BUFFER_SIZE];
+        this.buffer = ByteBuffer.wrap(this.bytes);
+        this.token = new byte[64];
+        this.lineStart = true;
+        this.line = 1;
+    }
+
+    /**
+     * reads next game of the file. Game ends with result or with the tags of the next game
+     *
+     * @return next game or {@code null} if there are no more games
+     * @throws IOException if reading of the file fails
+     * @throws IllegalArgumentException if the text isn't valid PGN
+     */
+
+    public PgnGame nextGame() throws IOException
+    {
+        final Map<String, String> tags = new LinkedHashMap<>();
+        final List<String> moves = new ArrayList<>();
+        while (true)
+        {
+            switch (nextToken())
+            {
+                case END_OF_INPUT:
+                    return tags.isEmpty() && moves.isEmpty() ? null : new PgnGame(tags, moves, PgnGame.UNKNOWN_RESULT);
+                case TAG_START:
+                    if (!moves.isEmpty())
+                    {
+                        // game without result
+                        this.tagStartPushedBack = true;
+                        return new PgnGame(tags, moves, PgnGame.UNKNOWN_RESULT);
+                    }
+                    readTag(tags);
+                    break;
+                case SYMBOL:
+                    if (isResult())
+                    {
+                        return new PgnGame(tags, moves, getTokenText());
+                    }
+                    if (!isMoveNumber())
+                    {
+                        moves.add(getTokenText());
+                    }
+                    break;
+                default:
+                    throw invalid("unexpected token");
+            }
+        }
+    }
+
+    /**
+     * closes the channel
+     *
+     * @throws IOException if closing fails
+     */
+
+    @Override
+    public void close() throws IOException
+    {
+        this.channel.close();
+    }
+
+    /**
+     * reads one tag pair, opening bracket is already read
+     *
+     * @param tags map to which the tag is put
+     * @throws IOException if reading of the file fails
+     */
+
+    private void readTag(final Map<String, String> tags) throws IOException
+    {
+        if (nextToken() != SYMBOL)
+        {
+            throw invalid("missing tag name");
+        }
+        final String name = getTokenText();
+        if (nextToken() != STRING)
+        {
+            throw invalid("missing value of tag " + name);
+        }
+        final String value = new String(this.token, 0, this.tokenLength, StandardCharsets.UTF_8);
+        if (nextToken() != TAG_END)
+        {
+            throw invalid("unclosed tag " + name);
+        }
+        tags.put(name, value);
+    }
+
+    /**
+     * reads next token, everything which doesn't change the main line is skipped
+     *
+     * @return type of the token, its text is in the token buffer
+     * @throws IOException if reading of the file fails
+     */
+
+    private int nextToken() throws IOException
+    {
+        if (this.tagStartPushedBack)
+        {
+            this.tagStartPushedBack = false;
+            return TAG_START;
+        }
+        while (true)
+        {
+            final int sign = read();
+            if (sign < 0)
+            {
+                return END_OF_INPUT;
+            }
+            if (sign == '%' && this.lineStart)
+            {
+                skipLine();
+                continue;
+            }
+            this.lineStart = sign == '\n';
+            switch (sign)
+            {
+                case '[':
+                    return TAG_START;
+                case ']':
+                    return TAG_END;
+                case '"':
+                    readString();
+                    return STRING;
+                case '{':
+                    skipComment();
+                    break;
+                case ';':
+                    skipLine();
+                    break;
+                case '(':
+                    skipVariation();
+                    break;
+                case '$':
+                    while (peek() >= '0' && peek() <= '9')
+                    {
+                        read();
+                    }
+                    break;
+                case '*':
+                    this.tokenLength = 0;
+                    appendToken(sign);
+                    return SYMBOL;
+                default:
+                    if (isSymbolSign(sign))
+                    {
+                        this.tokenLength = 0;
+                        appendToken(sign);
+                        while (isSymbolSign(peek()))
+                        {
+                            appendToken(read());
+                        }
+                        return SYMBOL;
+                    }
+                    // white space, periods of move numbers and annotation signs like ! and ?
+            }
+        }
+    }
+
+    /**
+     * reads string token without quotes, backslash escapes quote and backslash
+     *
+     * @throws IOException if reading of the file fails
+     */
+
+    private void readString() throws IOException
+    {
+        this.tokenLength = 0;
+        while (true)
+        {
+            int sign = read();
+            if (sign == '\\')
+            {
+                sign = read();
+            }
+            else if (sign == '"')
+            {
+                return;
+            }
+            if (sign < 0)
+            {
+                throw invalid("unclosed string");
+            }
+            appendToken(sign);
+        }
+    }
+
+    /**
+     * skips comment in braces, opening brace is already read
+     *
+     * @throws IOException if reading of the file fails
+     */
+
+    private void skipComment() throws IOException
+    {
+        int sign;
+        while ((sign = read()) != '}')
+        {
+            if (sign < 0)
+            {
+                throw invalid("unclosed comment");
+            }
+        }
+    }
+
+    /**
+     * skips rest of the line, used for comments after semicolon and lines escaped with percent sign
+     *
+     * @throws IOException if reading of the file fails
+     */
+
+    private void skipLine() throws IOException
+    {
+        int sign;
+        while ((sign = read()) != '\n' && sign >= 0)
+        {
+            // skipped
+        }
+        this.lineStart = true;
+    }
+
+    /**
+     * skips variation with all nested variations and comments, opening parenthesis is already read
+     *
+     * @throws IOException if reading of the file fails
+     */
+
+    private void skipVariation() throws IOException
+    {
+        int depth = 1;
+        while (depth > 0)
+        {
+            final int sign = read();
+            switch (sign)
+            {
+                case -1:
+                    throw invalid("unclosed variation");
+                case '(':
+                    depth++;
+                    break;
+                case ')':
+                    depth--;
+                    break;
+                case '{':
+                    skipComment();
+                    break;
+                case ';':
+                    skipLine();
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * check if the symbol token is game termination marker
+     *
+     * @return {@code true} if the token is 1-0, 0-1, 1/2-1/2 or *; {@code false} otherwise
+     */
+
+    private boolean isResult()
+    {
+        final byte[] text = this.token;
+        switch (this.tokenLength)
+        {
+            case 1:
+                return text[0] == '*';
+            case 3:
+                return text[1] == '-' && ((text[0] == '1' && text[2] == '0') || (text[0] == '0' && text[2] == '1'));
+            case 7:
+                return text[0] == '1' && text[1] == '/' && text[2] == '2' && text[3] == '-' &&
+                        text[4] == '1' && text[5] == '/' && text[6] == '2';
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * check if the symbol token is move number, periods after the number are separate tokens
+     *
+     * @return {@code true} if the token contains only digits; {@code false} otherwise
+     */
+
+    private boolean isMoveNumber()
+    {
+        for (int i = 0; i < this.tokenLength; i++)
+        {
+            if (this.token[i] < '0' || this.token[i] > '9')
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * check if the sign can be part of the symbol token
+     *
+     * @param sign read byte
+     * @return {@code true} for letters, digits and signs used in moves and results; {@code false} otherwise
+     */
+
+    private static boolean isSymbolSign(final int sign)
+    {
+        return (sign >= 'a' && sign <= 'z') || (sign >= 'A' && sign <= 'Z') || (sign >= '0' && sign <= '9') ||
+                sign == '_' || sign == '+' || sign == '#' || sign == '=' || sign == ':' || sign == '-' || sign == '/';
+    }
+
+    /**
+     * getter of text of the symbol token, symbols contain only ASCII signs
+     *
+     * @return text of the token
+     */
+
+    private String getTokenText()
+    {
+        return new String(this.token, 0, this.tokenLength, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * adds byte to the token buffer, buffer grows when it is full
+     *
+     * @param sign added byte
+     */
+
+    private void appendToken(final int sign)
+    {
+        if (this.tokenLength == this.token.length)
+        {
+            final byte[] grown = new byte[this.token.length * 2];
+            System.arraycopy(this.token, 0, grown, 0, this.tokenLength);
+            this.token = grown;
+        }
+        this.token[this.tokenLength++] = (byte) sign;
+    }
+
+    /**
+     * reads next byte
+     *
+     * @return next byte or {@code -1} at the end of input
+     * @throws IOException if reading of the file fails
+     */
+
+    private int read() throws IOException
+    {
+        if (this.position == this.limit && !fill())
+        {
+            return -1;
+        }
+        final int sign = this.bytes[this.position++] & 0xFF;
+        if (sign == '\n')
+        {
+            this.line++;
+        }
+        return sign;
+    }
+
+    /**
+     * getter of next byte without reading it
+     *
+     * @return next byte or {@code -1} at the end of input
+     * @throws IOException if reading of the file fails
+     */
+
+    private int peek() throws IOException
+    {
+        if (this.position == this.limit && !fill())
+        {
+            return -1;
+        }
+        return this.bytes[this.position] & 0xFF;
+    }
+
+    /**
+     * reads next part of the input into the buffer
+     *
+     * @return {@code true} if any byte was read; {@code false} at the end of input
+     * @throws IOException if reading of the file fails
+     */
+
+    private boolean fill() throws IOException
+    {
+        int count;
+        do
+        {
+            this.buffer.clear();
+            count = this.channel.read(this.buffer);
+        }
+        while (count == 0);
+        if (count < 0)
+        {
+            return false;
+        }
+        this.position = 0;
+        this.limit = count;
+        return true;
+    }
+
+    /**
+     * creates exception for invalid text
+     *
+     * @param reason description of the error
+     * @return exception that will be thrown
+     */
+
+    private IllegalArgumentException invalid(final String reason)
+    {
+        return new IllegalArgumentException("invalid PGN at line " + this.line + ": " + reason);
+    }
+
+    /**
+     * reads and replays all games of the file and reports speed of reading. Usage: {@code PgnReader <file>}
+     *
+     * @param args path of the PGN file
+     * @throws IOException if reading of the file fails
+     */
+
+    public static void main(String[] args) throws IOException
+    {
+        final Path path = Path.of(args[0]);
+        final long start = System.nanoTime();
+        long games = 0;
+        long moves = 0;
+        long failedGames = 0;
+        try (PgnReader reader = new PgnReader(path))
+        {
+            PgnGame game;
+            while ((game = reader.nextGame()) != null)
+            {
+                games++;
+                moves += game.getMoves().size();
+                try
+                {
+                    game.replay();
+                }
+                catch (IllegalArgumentException e)
+                {
+                    failedGames++;
+                    System.out.println("game " + games + ": " + e.getMessage());
+                }
+            }
+        }
+        final long time = Math.max(1, System.nanoTime() - start);
+        System.out.println(games + " games, " + moves + " moves, " + failedGames + " not replayed, " +
+                Files.size(path) * 1000L / time + " MB/s");
+    }
+}
@@ -23,13 +23,11 @@ public class BlackPlayer extends Player
     /**
      *
      * @param board represents current board state
-     * @param avaliableWhiteMoves contains collection of available moves that player can make
-     * @param avaliableBlackMoves contains collection of available moves that opponent can make
      */
 
-    public BlackPlayer(Board board, Collection<Move> avaliableWhiteMoves, Collection<Move> avaliableBlackMoves)
+    public BlackPlayer(Board board)
     {
-        super(board, avaliableBlackMoves, avaliableWhiteMoves);
+        super(board);
     }
 
     /**
@@ -71,13 +69,11 @@ public class BlackPlayer extends Player
     /**
      * calculates possible castle moves
      *
-     * @param playerAvaliableMoves collection of moves that can be done by player
-     * @param opponentAvaliableMoves collection of moves that can be done by player's opponent
      * @return collection of available castle moves
      */
 
     @Override
-    protected Collection<Move> calculateKingCastles(Collection<Move> playerAvaliableMoves, Collection<Move> opponentAvaliableMoves)
+    protected Collection<Move> calculateKingCastles()
     {
         final List<Move> kingCastles = new ArrayList<>();
 
@@ -90,8 +86,8 @@ public class BlackPlayer extends Player
 
                 if (rookBoardBox.isBoxOccupied() && rookBoardBox.getPiece().isFirstMove())
                 {
-                    if (Player.calculateAttackOnBox(5, opponentAvaliableMoves).isEmpty() &&
-                            Player.calculateAttackOnBox(6, opponentAvaliableMoves).isEmpty() &&
+                    if (!this.board.isSquareAttacked(5, true) &&
+                            !this.board.isSquareAttacked(6, true) &&
                             rookBoardBox.getPiece().isRook())
                     {
                         kingCastles.add(new KingSideCastleMove(this.board, this.playerKing, 6,
@@ -108,8 +104,8 @@ public class BlackPlayer extends Player
 
                 if (rookBoardBox.isBoxOccupied() && rookBoardBox.getPiece().isFirstMove())
                 {
-                    if (Player.calculateAttackOnBox(3, opponentAvaliableMoves).isEmpty() &&
-                            Player.calculateAttackOnBox(2, opponentAvaliableMoves).isEmpty() &&
+                    if (!this.board.isSquareAttacked(3, true) &&
+                            !this.board.isSquareAttacked(2, true) &&
                             rookBoardBox.getPiece().isRook())
                     {
                         kingCastles.add(new QueenSideCastleMove(this.board, this.playerKing, 2,
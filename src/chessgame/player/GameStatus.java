@@ -0,0 +1,23 @@
+package chessgame.player;
+
+/**
+ * enum which represents status of the game from the point of view of the player that is making move
+ */
+
+public enum GameStatus
+{
+    ONGOING,
+    CHECKMATE,
+    STALEMATE;
+
+    /**
+     * check if the game has ended
+     *
+     * @return {@code true} if this is checkmate or stalemate; {@code false} otherwise
+     */
+
+    public boolean isGameOver()
+    {
+        return this != ONGOING;
+    }
+}
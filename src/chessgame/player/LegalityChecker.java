@@ -0,0 +1,186 @@
+package chessgame.player;
+
+import chessgame.ChessUtil;
+import chessgame.gameboard.AttackTables;
+import chessgame.gameboard.BitBoard;
+import chessgame.gameboard.Board;
+import chessgame.gameboard.chesspieces.PieceType;
+import chessgame.gameboard.move.Move;
+import chessgame.gameboard.move.Move.PawnEnPassantAttackMove;
+
+/**
+ * class which checks if move leaves own king safe without executing the move. Checking pieces, check mask
+ * and pin rays are calculated once from the current position of the player.
+ */
+
+final class LegalityChecker
+{
+    private final BitBoard bitBoard;
+    private final boolean white;
+    private final int kingPosition;
+    private final long checkers;
+    private final long checkMask;
+    private final long kingDangerBoxes;
+    private final long pinnedPieces;
+    private final long[] pinRays;
+
+    /**
+     *
+     * @param board represents current board state
+     * @param white colour of the player whose moves are checked
+     * @param kingPosition index of the box with player king
+     */
+
+    LegalityChecker(final Board board, final boolean white, final int kingPosition)
+    {
+        this.bitBoard = board.getBitBoard();
+        this.white = white;
+        this.kingPosition = kingPosition;
+
+        final long kingMask = 1L << kingPosition;
+        final long ownPieces = this.bitBoard.getOccupancy(white);
+        final long enemyPieces = this.bitBoard.getOccupancy(!white);
+        final long enemyQueens = this.bitBoard.getPieceBitBoard(PieceType.QUEEN, !white);
+        final long enemyRooks = this.bitBoard.getPieceBitBoard(PieceType.ROOK, !white) | enemyQueens;
+        final long enemyBishops = this.bitBoard.getPieceBitBoard(PieceType.BISHOP, !white) | enemyQueens;
+
+        long checkers = (AttackTables.getPawnAttacks(kingPosition, white) & this.bitBoard.getPieceBitBoard(PieceType.PAWN, !white)) |
+                (AttackTables.getKnightAttacks(kingPosition) & this.bitBoard.getPieceBitBoard(PieceType.KNIGHT, !white));
+        long checkMask = checkers;
+        long pinnedPieces = 0L;
+        long[] pinRays = null;
+
+        for (int direction = 0; direction < AttackTables.NUMBER_OF_DIRECTIONS; direction++)
+        {
+            final long sliders = AttackTables.isDiagonal(direction) ? enemyBishops : enemyRooks;
+            long ray = 0L;
+            int pinnedPosition = -1;
+            for (int position : AttackTables.getRay(kingPosition, direction))
+            {
+                final long boxMask = 1L << position;
+                ray |= boxMask;
+                if ((ownPieces & boxMask) != 0)
+                {
+                    if (pinnedPosition >= 0)
+                    {
+                        break;
+                    }
+                    pinnedPosition = position;
+                }
+                else if ((enemyPieces & boxMask) != 0)
+                {
+                    if ((sliders & boxMask) != 0)
+                    {
+                        if (pinnedPosition < 0)
+                        {
+                            checkers |= boxMask;
+                            checkMask |= ray;
+                        }
+                        else
+                        {
+                            if (pinRays == null)
+                            {
+                                pinRays = new long[ChessUtil.GAME_BOARD_SIZE];
+                            }
+                            pinnedPieces |= 1L << pinnedPosition;
+                            pinRays[pinnedPosition] = ray;
+                        }
+                    }
+                    break;
+                }
+            }
+        }
+
+        this.checkers = checkers;
+        this.checkMask = checkers == 0 ? -1L : checkMask;
+        this.pinnedPieces = pinnedPieces;
+        this.pinRays = pinRays;
+        this.kingDangerBoxes = this.bitBoard.calculateAttacks(!white, this.bitBoard.getOccupancy() & ~kingMask);
+    }
+
+    /**
+     * check if the move doesn't leave own king attacked, move has to be one of available moves of the player
+     *
+     * @param move move that will be checked
+     * @return {@code true} if king is safe after the move; {@code false} otherwise
+     */
+
+    boolean isLegal(final Move move)
+    {
+        final int position = move.getPosition();
+        final long destinationMask = 1L << move.getDestination();
+        if (position == this.kingPosition)
+        {
+            return (this.kingDangerBoxes & destinationMask) == 0;
+        }
+        if (isDoubleCheck())
+        {
+            return false;
+        }
+        if (move instanceof PawnEnPassantAttackMove)
+        {
+            return isKingSafeAfterEnPassant(move);
+        }
+        if ((this.checkMask & destinationMask) == 0)
+        {
+            return false;
+        }
+        return (this.pinnedPieces & (1L << position)) == 0 || (this.pinRays[position] & destinationMask) != 0;
+    }
+
+    /**
+     * check if the king is attacked
+     *
+     * @return {@code true} if there is at least one checking piece; {@code false} otherwise
+     */
+
+    boolean isInCheck()
+    {
+        return this.checkers != 0;
+    }
+
+    /**
+     * check if the king is attacked by two pieces, then only king moves can be legal
+     *
+     * @return {@code true} if there are two checking pieces; {@code false} otherwise
+     */
+
+    boolean isDoubleCheck()
+    {
+        return Long.bitCount(this.checkers) > 1;
+    }
+
+    /**
+     * getter of mask of boxes on which move of piece other than king stops the check
+     *
+     * @return mask of checking piece and boxes between it and the king, all boxes if there is no check
+     */
+
+    long getCheckMask()
+    {
+        return this.checkMask;
+    }
+
+    /**
+     * en passant removes two pieces from one row, so the king safety is calculated from occupancy after the move
+     *
+     * @param move en passant move that will be checked
+     * @return {@code true} if king is safe after the move; {@code false} otherwise
+     */
+
+    private boolean isKingSafeAfterEnPassant(final Move move)
+    {
+        final long capturedMask = 1L << move.getAttackedPiece().getPosition();
+        final long occupancy = (this.bitBoard.getOccupancy() & ~(1L << move.getPosition()) & ~capturedMask) |
+                (1L << move.getDestination());
+        final long enemyQueens = this.bitBoard.getPieceBitBoard(PieceType.QUEEN, !this.white);
+        final long enemyRooks = this.bitBoard.getPieceBitBoard(PieceType.ROOK, !this.white) | enemyQueens;
+        final long enemyBishops = this.bitBoard.getPieceBitBoard(PieceType.BISHOP, !this.white) | enemyQueens;
+
+        final long attackers = (AttackTables.getPawnAttacks(this.kingPosition, this.white) & this.bitBoard.getPieceBitBoard(PieceType.PAWN, !this.white) & ~capturedMask) |
+                (AttackTables.getKnightAttacks(this.kingPosition) & this.bitBoard.getPieceBitBoard(PieceType.KNIGHT, !this.white)) |
+                (BitBoard.rookAttacks(this.kingPosition, occupancy) & enemyRooks) |
+                (BitBoard.bishopAttacks(this.kingPosition, occupancy) & enemyBishops);
+        return attackers == 0;
+    }
+}
@@ -21,22 +21,22 @@ public abstract class Player
 {
     protected final Board board;
     protected final King playerKing;
-    protected final Collection<Move> availableMoves;
-    private final boolean isInCheck;
+    // calculated on first request, board is immutable so racing threads calculate equal values
+    private volatile Collection<Move> availableMoves;
+    private volatile Collection<Move> legalMoves;
+    private volatile LegalityChecker legalityChecker;
+    private volatile GameStatus gameStatus;
 
     /**
-     * 
+     * available moves are calculated when they are requested for the first time
+     *
      * @param board represents current board state
-     * @param availableMoves contains collection of available moves that player can make
-     * @param opponentMoves contains collection of available moves that opponent can make
      */
 
-    Player(final Board board, final Collection<Move> availableMoves, final Collection<Move> opponentMoves)
+    Player(final Board board)
     {
         this.board = board;
         this.playerKing = trackKing();
-        this.availableMoves = Stream.concat(availableMoves.stream(), calculateKingCastles(availableMoves, opponentMoves).stream()).collect(Collectors.toUnmodifiableList());
-        this.isInCheck = !Player.calculateAttackOnBox(this.playerKing.getPosition(), opponentMoves).isEmpty();
     }
 
     /**
@@ -58,7 +58,68 @@ public abstract class Player
     
     public Collection<Move> getAvailableMoves()
     {
-        return this.availableMoves;
+        Collection<Move> moves = this.availableMoves;
+        if (moves == null)
+        {
+            moves = Stream.concat(this.board.getPieceMoves(isWhitePlayer()).stream(), calculateKingCastles().stream()).collect(Collectors.toUnmodifiableList());
+            this.availableMoves = moves;
+        }
+        return moves;
+    }
+
+    /**
+     * getter of available moves that don't leave own king attacked, they are filtered without executing any move
+     *
+     * @return collection of legal moves
+     */
+
+    public Collection<Move> getLegalMoves()
+    {
+        Collection<Move> moves = this.legalMoves;
+        if (moves == null)
+        {
+            moves = filterLegalMoves(getAvailableMoves());
+            this.legalMoves = moves;
+        }
+        return moves;
+    }
+
+    /**
+     * getter of legal moves which capture enemy pieces. Captures are taken from legal moves if they were already calculated,
+     * otherwise only captures are generated and filtered
+     *
+     * @return collection of legal attack moves
+     */
+
+    public Collection<Move> getLegalCaptures()
+    {
+        final Collection<Move> moves = this.legalMoves;
+        if (moves != null)
+        {
+            final List<Move> captures = new ArrayList<>();
+            for (Move move : moves)
+            {
+                if (move.isAttackMove())
+                {
+                    captures.add(move);
+                }
+            }
+            return Collections.unmodifiableList(captures);
+        }
+        return filterLegalMoves(this.board.getCaptureMoves(isWhitePlayer()));
+    }
+
+    /**
+     * getter of legal moves when the king is in check, only king moves and moves to the check mask are generated.
+     * If the king isn't in check these are all legal moves except castling.
+     *
+     * @return collection of legal moves which stop the check
+     */
+
+    public Collection<Move> getLegalEvasions()
+    {
+        final LegalityChecker checker = getLegalityChecker();
+        return filterLegalMoves(this.board.getEvasionMoves(isWhitePlayer(), checker.isDoubleCheck() ? 0L : checker.getCheckMask()));
     }
 
     /**
@@ -70,7 +131,7 @@ public abstract class Player
 
     public  boolean isMoveLegal(final Move move)
     {
-        return this.availableMoves.contains(move);
+        return getAvailableMoves().contains(move);
     }
 
     /**
@@ -81,7 +142,7 @@ public abstract class Player
 
     public boolean isInCheck()
     {
-        return this.isInCheck;
+        return this.board.isSquareAttacked(this.playerKing.getPosition(), !isWhitePlayer());
     }
 
     /**
@@ -92,7 +153,7 @@ public abstract class Player
 
     public boolean isInCheckMate()
     {
-        return this.isInCheck && !hasEscapeMoves();
+        return getGameStatus() == GameStatus.CHECKMATE;
     }
 
     /**
@@ -103,7 +164,31 @@ public abstract class Player
 
     public boolean isInStaleMate()
     {
-        return !this.isInCheck && !hasEscapeMoves();
+        return getGameStatus() == GameStatus.STALEMATE;
+    }
+
+    /**
+     * getter of status of the game, status is calculated once on first request
+     *
+     * @return {@code CHECKMATE} or {@code STALEMATE} if player has no legal move; {@code ONGOING} otherwise
+     */
+
+    public GameStatus getGameStatus()
+    {
+        GameStatus status = this.gameStatus;
+        if (status == null)
+        {
+            if (hasEscapeMoves())
+            {
+                status = GameStatus.ONGOING;
+            }
+            else
+            {
+                status = isInCheck() ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+            }
+            this.gameStatus = status;
+        }
+        return status;
     }
 
 //    public boolean isCastled()
@@ -112,7 +197,7 @@ public abstract class Player
 //    }
 
     /**
-     * making move means creating movement. After move is done it can be annulled if e.g. your king is checkmated
+     * making move means creating movement. Move that leaves own king attacked is annulled before the next board is built
      *
      * @param move contains move thar has been made
      * @return movement with new board, move and move status {@code true} if move is legal and doesn't end up in checkmate of movemaker; movement with {@code false} otherwise
@@ -120,19 +205,11 @@ public abstract class Player
 
     public Movement makeMove(final Move move)
     {
-        if (!isMoveLegal(move))
-        {
-            return new Movement(this.board, move, false);
-        }
-        final Board nextBoard = move.execute();
-
-        final Collection<Move> kingAttacks = Player.calculateAttackOnBox(nextBoard.getCurrentPlayer().getOpponent().getKing().getPosition(), nextBoard.getCurrentPlayer().getAvailableMoves());
-
-        if (!kingAttacks.isEmpty())
+        if (!isMoveLegal(move) || !getLegalityChecker().isLegal(move))
         {
             return new Movement(this.board, move, false);
         }
-        return new Movement(nextBoard, move, true);
+        return new Movement(move.execute(), move, true);
     }
 
     /**
@@ -160,71 +237,124 @@ public abstract class Player
     public abstract Player getOpponent();
 
     /**
-     * calculates possible castle moves
+     * calculates possible castle moves, boxes passed by the king are checked with attack map of the board
      *
-     * @param playerAvaliableMoves collection of moves that can be done by player
-     * @param opponentAvaliableMoves collection of moves that can be done by player's opponent
      * @return collection of available castle moves
      */
 
-    protected abstract Collection<Move> calculateKingCastles(Collection<Move> playerAvaliableMoves, Collection<Move> opponentAvaliableMoves);
+    protected abstract Collection<Move> calculateKingCastles();
 
     /**
-     * calculates all opponent's moves no given position (box)
+     * finds players king from all pieces
      *
-     * @param position intex of the box on the game board
-     * @param opponentMoves colection of opponents available moves
-     * @return collection of opponent available moves on given position
+     * @return king piece that belongs to the player
+     * @throws RuntimeException if there is no player king on the game board
      */
 
-    protected static Collection<Move> calculateAttackOnBox(int position, Collection<Move> opponentMoves)
+    private King trackKing()
     {
-        final List<Move> attackMoves = new ArrayList<>();
-        for (Move move : opponentMoves)
+        for (Piece piece : getAlivePieces())
         {
-            if (position == move.getDestination())
+            if (piece.isKing())
             {
-                attackMoves.add(move);
+                return (King) piece;
             }
         }
-        return Collections.unmodifiableList(attackMoves);
+        throw new RuntimeException("Na planszy nie ma króla!!!!!!!!");
     }
 
     /**
-     * finds players king from all pieces
+     * check if there is any legal move. King moves are tried first, in double check nothing else can help,
+     * then moves of other pieces are calculated piece by piece until the first legal one is found.
+     * Castle moves are skipped because castling is legal only if the king can also step aside.
      *
-     * @return king piece that belongs to the player
-     * @throws RuntimeException if there is no player king on the game board
+     * @return {@code true} if there is escape road for the king; {@code false} otherwise
      */
 
-    private King trackKing()
+    private boolean hasEscapeMoves()
     {
+        final Collection<Move> moves = this.legalMoves;
+        if (moves != null)
+        {
+            return !moves.isEmpty();
+        }
+        final LegalityChecker checker = getLegalityChecker();
+        for (Move move : this.playerKing.logic(this.board))
+        {
+            if (checker.isLegal(move))
+            {
+                return true;
+            }
+        }
+        if (checker.isDoubleCheck())
+        {
+            return false;
+        }
         for (Piece piece : getAlivePieces())
         {
-            if (piece.isKing())
+            if (!piece.isKing() && hasLegalMove(piece, checker))
             {
-                return (King) piece;
+                return true;
             }
         }
-        throw new RuntimeException("Na planszy nie ma króla!!!!!!!!");
+        return false;
     }
 
     /**
-     * check if there is an escape move for the checked king
+     * check if the piece has a legal move, in check only moves which block or capture the checking piece pass the checker
      *
-     * @return {@code true} if there is escape road for the checked king; {@code false} otherwise
+     * @param piece piece of the player
+     * @param checker legality checker of the player
+     * @return {@code true} if the piece can make legal move; {@code false} otherwise
      */
 
-    private boolean hasEscapeMoves()
+    private boolean hasLegalMove(final Piece piece, final LegalityChecker checker)
     {
-        for (Move move : this.availableMoves)
+        for (Move move : piece.logic(this.board, checker.getCheckMask()))
         {
-            final Movement movement = makeMove(move);
-            if (movement.isDone())
+            if (checker.isLegal(move))
             {
                 return true;
             }
         }
         return false;
     }
+
+    /**
+     * filters available moves that don't leave own king attacked
+     *
+     * @param availableMoves moves of the player pieces
+     * @return unmodifiable list of legal moves
+     */
+
+    private Collection<Move> filterLegalMoves(final Collection<Move> availableMoves)
+    {
+        final LegalityChecker checker = getLegalityChecker();
+        final List<Move> filteredMoves = new ArrayList<>();
+        for (Move move : availableMoves)
+        {
+            if (checker.isLegal(move))
+            {
+                filteredMoves.add(move);
+            }
+        }
+        return Collections.unmodifiableList(filteredMoves);
+    }
+
+    /**
+     * getter of legality checker of this player, checker is created on first request
+     *
+     * @return checker of the moves of this player
+     */
+
+    private LegalityChecker getLegalityChecker()
+    {
+        LegalityChecker checker = this.legalityChecker;
+        if (checker == null)
+        {
+            checker = new LegalityChecker(this.board, isWhitePlayer(), this.playerKing.getPosition());
+            this.legalityChecker = checker;
+        }
+        return checker;
+    }
 }
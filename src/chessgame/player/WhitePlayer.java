@@ -23,13 +23,11 @@ public class WhitePlayer extends Player
     /**
      *
      * @param board represents current board state
-     * @param avaliableWhiteMoves contains collection of available moves that player can make
-     * @param avaliableBlackMoves contains collection of available moves that opponent can make
      */
 
-    public WhitePlayer(Board board, Collection<Move> avaliableWhiteMoves, Collection<Move> avaliableBlackMoves)
+    public WhitePlayer(Board board)
     {
-        super(board, avaliableWhiteMoves, avaliableBlackMoves);
+        super(board);
     }
 
     /**
@@ -71,13 +69,11 @@ public class WhitePlayer extends Player
     /**
      * calculates possible castle moves
      *
-     * @param playerAvaliableMoves collection of moves that can be done by player
-     * @param opponentAvaliableMoves collection of moves that can be done by player's opponent
      * @return collection of available castle moves
      */
 
     @Override
-    protected Collection<Move> calculateKingCastles(final Collection<Move> playerAvaliableMoves, final Collection<Move> opponentAvaliableMoves)
+    protected Collection<Move> calculateKingCastles()
     {
         final List<Move> kingCastles = new ArrayList<>();
         if (this.playerKing.isFirstMove() && !this.isInCheck())
@@ -90,8 +86,8 @@ public class WhitePlayer extends Player
 
                 if (rookBoardBox.isBoxOccupied() && rookBoardBox.getPiece().isFirstMove())
                 {
-                    if (Player.calculateAttackOnBox(61, opponentAvaliableMoves).isEmpty() &&
-                            Player.calculateAttackOnBox(62, opponentAvaliableMoves).isEmpty() &&
+                    if (!this.board.isSquareAttacked(61, false) &&
+                            !this.board.isSquareAttacked(62, false) &&
                             rookBoardBox.getPiece().isRook())
                     {
                         kingCastles.add(new KingSideCastleMove(this.board, this.playerKing, 62,(Rook) rookBoardBox.getPiece(), rookBoardBox.getBoxId(), 61));
@@ -107,8 +103,8 @@ public class WhitePlayer extends Player
 
                 if (rookBoardBox.isBoxOccupied() && rookBoardBox.getPiece().isFirstMove())
                 {
-                    if (Player.calculateAttackOnBox(59, opponentAvaliableMoves).isEmpty() &&
-                            Player.calculateAttackOnBox(58, opponentAvaliableMoves).isEmpty() &&
+                    if (!this.board.isSquareAttacked(59, false) &&
+                            !this.board.isSquareAttacked(58, false) &&
                             rookBoardBox.getPiece().isRook())
                     {
                         kingCastles.add(new QueenSideCastleMove(this.board, this.playerKing, 58,
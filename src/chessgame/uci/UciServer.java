@@ -0,0 +1,462 @@
+package chessgame.uci;
+
+import chessgame.engine.ParallelSearch;
+import chessgame.engine.Search;
+import chessgame.engine.SearchResult;
+import chessgame.engine.TranspositionTable;
+import chessgame.gameboard.Board;
+import chessgame.gameboard.Fen;
+import chessgame.gameboard.move.Move;
+import chessgame.gameboard.move.Move.MoveFactory;
+import chessgame.gameboard.move.MoveNotation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * headless engine speaking UCI protocol on standard input and output. Commands are read on the calling thread
+ * and every search runs on its own thread, so {@code stop} and {@code ponderhit} are handled during the search.
+ */
+
+public class UciServer
+{
+    private static final String ENGINE_NAME = "chessgame";
+    private static final int DEFAULT_HASH_SIZE = 16;
+    private static final int MAX_HASH_SIZE = 4096;
+    private static final int DEFAULT_MOVES_TO_GO = 30;
+    private static final long MOVE_OVERHEAD = 50;
+    private static final long STOP_RETRY_INTERVAL = 10;
+
+    private final BufferedReader input;
+    private final PrintStream output;
+    private final TranspositionTable transpositionTable;
+    private final ParallelSearch search;
+    private final Timer timer;
+
+    private Board board;
+    private Thread searchThread;
+    private TimerTask stopTask;
+    // set when bestmove has to wait for stop or ponderhit, guarded by this
+    private boolean waitingForStop;
+    private long ponderTimeLimit;
+
+    /**
+     *
+     * @param input stream with commands of the GUI
+     * @param output stream for responses of the engine
+     */
+
+    public UciServer(final BufferedReader input, final PrintStream output)
+    {
+        this.input = input;
+        this.output = output;
+        this.transpositionTable = new TranspositionTable(DEFAULT_HASH_SIZE);
+        this.search = new ParallelSearch(this.transpositionTable, 1);
+        this.search.setIterationListener(this::sendInfo);
+        this.timer = new Timer("uci-timer", true);
+        this.board = Board.createStandardBoard();
+    }
+
+    /**
+     * starts the engine on standard input and output
+     *
+     * @param args not used
+     */
+
+    public static void main(String[] args)
+    {
+        final BufferedReader input = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        final PrintStream output = new PrintStream(System.out, true, StandardCharsets.UTF_8);
+        new UciServer(input, output).run();
+    }
+
+    /**
+     * reads and executes commands until {@code quit} or end of the input
+     */
+
+    public void run()
+    {
+        try
+        {
+            String line;
+            while ((line = this.input.readLine()) != null)
+            {
+                if (!execute(line.trim()))
+                {
+                    break;
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            this.output.println("info string input error " + e.getMessage());
+        }
+        stopSearch();
+        this.search.shutdown();
+        this.timer.cancel();
+    }
+
+    /**
+     * executes one command, unknown commands are ignored as the protocol requires
+     *
+     * @param line line with the command and its arguments
+     * @return {@code false} if the engine should quit; {@code true} otherwise
+     */
+
+    boolean execute(final String line)
+    {
+        final String[] tokens = line.split("\\s+");
+        switch (tokens[0])
+        {
+            case "uci":
+                this.output.println("id name " + ENGINE_NAME);
+                this.output.println("id author " + ENGINE_NAME + " developers");
+                this.output.println("option name Hash type spin default " + DEFAULT_HASH_SIZE + " min 1 max " + MAX_HASH_SIZE);
+                this.output.println("option name Threads type spin default 1 min 1 max " + ParallelSearch.MAX_THREADS);
+                this.output.println("option name Ponder type check default false");
+                this.output.println("uciok");
+                break;
+            case "isready":
+                this.output.println("readyok");
+                break;
+            case "ucinewgame":
+                stopSearch();
+                this.transpositionTable.clear();
+                this.board = Board.createStandardBoard();
+                break;
+            case "setoption":
+                stopSearch();
+                setOption(tokens);
+                break;
+            case "position":
+                stopSearch();
+                setPosition(tokens);
+                break;
+            case "go":
+                stopSearch();
+                go(tokens);
+                break;
+            case "ponderhit":
+                ponderHit();
+                break;
+            case "stop":
+                stopSearch();
+                break;
+            case "quit":
+                return false;
+            default:
+                break;
+        }
+        return true;
+    }
+
+    /**
+     * handles {@code setoption name <name> value <value>}, supported options are Hash and Threads
+     *
+     * @param tokens words of the command
+     */
+
+    private void setOption(final String[] tokens)
+    {
+        final String name = findValue(tokens, "name");
+        final String value = findValue(tokens, "value");
+        if (name == null || value == null)
+        {
+            return;
+        }
+        try
+        {
+            if (name.equalsIgnoreCase("Hash"))
+            {
+                this.transpositionTable.resize(Math.min(Integer.parseInt(value), MAX_HASH_SIZE));
+            }
+            else if (name.equalsIgnoreCase("Threads"))
+            {
+                this.search.setThreads(Integer.parseInt(value));
+            }
+        }
+        catch (NumberFormatException e)
+        {
+            this.output.println("info string invalid value " + value + " of option " + name);
+        }
+    }
+
+    /**
+     * handles {@code position startpos|fen <fen> [moves <moves>]}, moves are written in long algebraic notation
+     *
+     * @param tokens words of the command
+     */
+
+    private void setPosition(final String[] tokens)
+    {
+        if (tokens.length < 2)
+        {
+            return;
+        }
+        int index = 1;
+        if (tokens[index].equals("startpos"))
+        {
+            this.board = Board.createStandardBoard();
+            index++;
+        }
+        else if (tokens[index].equals("fen"))
+        {
+            final StringBuilder fen = new StringBuilder();
+            for (index++; index < tokens.length && !tokens[index].equals("moves"); index++)
+            {
+                fen.append(tokens[index]).append(' ');
+            }
+            try
+            {
+                this.board = Fen.createBoard(fen.toString().trim());
+            }
+            catch (IllegalArgumentException e)
+            {
+                this.output.println("info string " + e.getMessage());
+                return;
+            }
+        }
+        else
+        {
+            return;
+        }
+        if (index < tokens.length && tokens[index].equals("moves"))
+        {
+            for (index++; index < tokens.length; index++)
+            {
+                final Move move = MoveFactory.createMove(this.board, tokens[index]);
+                if (move == Move.NULL_MOVE)
+                {
+                    this.output.println("info string illegal move " + tokens[index]);
+                    return;
+                }
+                this.board = move.execute();
+            }
+        }
+    }
+
+    /**
+     * handles {@code go} with {@code depth}, {@code movetime}, {@code wtime}, {@code btime}, {@code winc}, {@code binc},
+     * {@code movestogo}, {@code infinite} and {@code ponder}. Search is started on a new thread.
+     *
+     * @param tokens words of the command
+     */
+
+    private void go(final String[] tokens)
+    {
+        int depth = Search.MAX_PLY;
+        long moveTime = 0;
+        final long[] times = new long[2];
+        final long[] increments = new long[2];
+        int movesToGo = DEFAULT_MOVES_TO_GO;
+        boolean infinite = false;
+        boolean ponder = false;
+        try
+        {
+            for (int i = 1; i < tokens.length; i++)
+            {
+                switch (tokens[i])
+                {
+                    case "depth": depth = Integer.parseInt(tokens[++i]); break;
+                    case "movetime": moveTime = Long.parseLong(tokens[++i]); break;
+                    case "wtime": times[0] = Long.parseLong(tokens[++i]); break;
+                    case "btime": times[1] = Long.parseLong(tokens[++i]); break;
+                    case "winc": increments[0] = Long.parseLong(tokens[++i]); break;
+                    case "binc": increments[1] = Long.parseLong(tokens[++i]); break;
+                    case "movestogo": movesToGo = Math.max(1, Integer.parseInt(tokens[++i])); break;
+                    case "infinite": infinite = true; break;
+                    case "ponder": ponder = true; break;
+                    default: break;
+                }
+            }
+        }
+        catch (NumberFormatException | ArrayIndexOutOfBoundsException e)
+        {
+            this.output.println("info string invalid go command");
+            return;
+        }
+
+        final int player = this.board.getCurrentPlayer().isWhitePlayer() ? 0 : 1;
+        final long time = times[player];
+        long timeLimit = moveTime;
+        if (timeLimit == 0 && time > 0)
+        {
+            timeLimit = Math.max(1, Math.min(time / movesToGo + increments[player] * 3 / 4, time - MOVE_OVERHEAD));
+        }
+        synchronized (this)
+        {
+            this.waitingForStop = infinite || ponder;
+            this.ponderTimeLimit = ponder ? timeLimit : 0;
+        }
+        final Board searchedBoard = this.board;
+        final int maxDepth = Math.max(1, depth);
+        final long searchTimeLimit = infinite || ponder ? 0 : timeLimit;
+        this.searchThread = new Thread(() -> runSearch(searchedBoard, maxDepth, searchTimeLimit), "uci-search");
+        this.searchThread.start();
+    }
+
+    /**
+     * runs the search and sends the best move, in infinite and ponder mode best move is sent after stop or ponderhit
+     *
+     * @param searchedBoard board of the searched position
+     * @param maxDepth maximum depth of the search
+     * @param timeLimit time limit in milliseconds or {@code 0} if there is no limit
+     */
+
+    private void runSearch(final Board searchedBoard, final int maxDepth, final long timeLimit)
+    {
+        final SearchResult result = this.search.search(searchedBoard, maxDepth, timeLimit);
+        synchronized (this)
+        {
+            while (this.waitingForStop)
+            {
+                try
+                {
+                    wait();
+                }
+                catch (InterruptedException e)
+                {
+                    break;
+                }
+            }
+        }
+        final List<Move> variation = result.getPrincipalVariation();
+        if (variation.isEmpty())
+        {
+            this.output.println("bestmove 0000");
+        }
+        else
+        {
+            this.output.println("bestmove " + MoveNotation.encodeLongAlgebraic(variation.get(0)) +
+                    (variation.size() > 1 ? " ponder " + MoveNotation.encodeLongAlgebraic(variation.get(1)) : ""));
+        }
+    }
+
+    /**
+     * opponent made the expected move, pondering search continues as normal search with the time of the move
+     */
+
+    private void ponderHit()
+    {
+        final long timeLimit;
+        synchronized (this)
+        {
+            this.waitingForStop = false;
+            timeLimit = this.ponderTimeLimit;
+            notifyAll();
+        }
+        if (timeLimit > 0 && this.searchThread != null && this.searchThread.isAlive())
+        {
+            this.stopTask = new TimerTask()
+            {
+                @Override
+                public void run()
+                {
+                    UciServer.this.search.stop();
+                }
+            };
+            this.timer.schedule(this.stopTask, timeLimit);
+        }
+        else if (timeLimit == 0)
+        {
+            this.search.stop();
+        }
+    }
+
+    /**
+     * stops the running search and waits until its best move is sent
+     */
+
+    private void stopSearch()
+    {
+        if (this.stopTask != null)
+        {
+            this.stopTask.cancel();
+            this.stopTask = null;
+        }
+        if (this.searchThread == null)
+        {
+            return;
+        }
+        synchronized (this)
+        {
+            this.waitingForStop = false;
+            notifyAll();
+        }
+        try
+        {
+            // stop is repeated because search which hasn't started yet clears the stop flag
+            while (this.searchThread.isAlive())
+            {
+                this.search.stop();
+                this.searchThread.join(STOP_RETRY_INTERVAL);
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        this.searchThread = null;
+    }
+
+    /**
+     * sends result of finished iteration as info line
+     *
+     * @param result result of the iteration
+     */
+
+    private void sendInfo(final SearchResult result)
+    {
+        final StringBuilder info = new StringBuilder("info depth ").append(result.getDepth());
+        if (result.isMateScore())
+        {
+            final int distance = Search.MATE_SCORE - Math.abs(result.getScore());
+            info.append(" score mate ").append(result.getScore() > 0 ? (distance + 1) / 2 : -(distance / 2));
+        }
+        else
+        {
+            info.append(" score cp ").append(result.getScore());
+        }
+        info.append(" nodes ").append(result.getNodes())
+                .append(" time ").append(result.getTime())
+                .append(" nps ").append(result.getNodes() * 1000 / Math.max(1, result.getTime()))
+                .append(" hashfull ").append(this.transpositionTable.getHashFull())
+                .append(" pv");
+        for (Move move : result.getPrincipalVariation())
+        {
+            info.append(' ').append(MoveNotation.encodeLongAlgebraic(move));
+        }
+        this.output.println(info);
+    }
+
+    /**
+     * finds word which follows given keyword, words up to the next keyword belong to the value
+     *
+     * @param tokens words of the command
+     * @param keyword {@code name} or {@code value}
+     * @return value of the keyword or {@code null} if there is no keyword
+     */
+
+    private static String findValue(final String[] tokens, final String keyword)
+    {
+        for (int i = 0; i < tokens.length - 1; i++)
+        {
+            if (tokens[i].equals(keyword))
+            {
+                final StringBuilder value = new StringBuilder(tokens[i + 1]);
+                for (int j = i + 2; j < tokens.length && !tokens[j].equals("value"); j++)
+                {
+                    value.append(' ').append(tokens[j]);
+                }
+                return value.toString();
+            }
+        }
+        return null;
+    }
+}